@@ -3,7 +3,9 @@ package com.huythanh0x.udemycoupons.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.huythanh0x.udemycoupons.service.CouponListCache;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -21,6 +23,7 @@ import java.time.Duration;
 /**
  * Cache configuration for Spring Cache abstraction.
  * Uses Redis as the cache backend with different TTLs for different cache types.
+ * Coupon list pages have their own two-tier cache ({@link CouponListCache}).
  */
 @Configuration
 @EnableCaching
@@ -57,6 +60,18 @@ public class CacheConfig {
         return mapper;
     }
     
+    /**
+     * Two-tier cache of coupon list pages, versioned by crawler writes.
+     * Registered as a MeterBinder so Actuator exports its hit ratio per tier.
+     */
+    @Bean
+    public CouponListCache couponListCache(
+            ObjectMapper objectMapper,
+            @Value("${custom.list-cache.local-max-entries:1000}") int localMaxEntries,
+            @Value("${custom.list-cache.redis-ttl-minutes:60}") long redisTtlMinutes) {
+        return new CouponListCache(objectMapper, localMaxEntries, Duration.ofMinutes(redisTtlMinutes));
+    }
+    
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory, @Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper) {
         // Use the specifically named redisObjectMapper bean (with type information for Redis)
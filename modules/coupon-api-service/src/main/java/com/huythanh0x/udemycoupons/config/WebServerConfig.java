@@ -0,0 +1,27 @@
+package com.huythanh0x.udemycoupons.config;
+
+import com.huythanh0x.udemycoupons.utils.ExecutorFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts Tomcat request handling on the execution mode selected by {@code custom.executor-mode}, so a single
+ * property decides whether both the request threads and the Udemy fan-out run on virtual threads.
+ */
+@Configuration
+public class WebServerConfig {
+
+    /**
+     * In virtual mode each request is served on its own virtual thread; in platform mode Tomcat keeps its
+     * default pool ({@code server.tomcat.threads.*}).
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> executorModeProtocolHandlerCustomizer(ExecutorFactory executorFactory) {
+        return protocolHandler -> {
+            if (executorFactory.isVirtual()) {
+                protocolHandler.setExecutor(executorFactory.newExecutor("tomcat-handler", 0));
+            }
+        };
+    }
+}
@@ -44,10 +44,15 @@ public class CouponCourseController {
      * @param level         optional level filter
      * @param language      optional language filter
      * @param query         optional free-text search query
-     * @param sortBy        optional sort field: students, rating, createdAt, contentLength, usesRemaining (default: createdAt)
+     * @param sortBy        optional sort field: students, rating, createdAt, contentLength, usesRemaining
+     *                      (default: relevance for text queries, createdAt otherwise)
      * @param sortOrder     optional sort order: asc, desc (default: desc)
      * @param pageIndex     page index (0-based), defaults to 0
      * @param numberPerPage number of items per page, defaults to 10
+     * @param cursor        optional keyset cursor; pass it empty for the first page and then the returned
+     *                      {@code nextCursor} (pageIndex is ignored in this mode)
+     * @param includeTotal  in cursor mode, whether to count the total number of coupons (default: false)
+     * @param fields        optional comma-separated fields to add to the coupon cards: description, previewVideo
      * @param request       HTTP servlet request
      * @return a paginated coupon response
      */
@@ -59,10 +64,13 @@ public class CouponCourseController {
         @RequestParam(required = false, defaultValue = "") String level,
         @RequestParam(required = false, defaultValue = "") String language,
         @RequestParam(required = false, defaultValue = "") String query,
-        @RequestParam(required = false, defaultValue = "createdAt") String sortBy,
+        @RequestParam(required = false, defaultValue = "") String sortBy,
         @RequestParam(required = false, defaultValue = "desc") String sortOrder,
         @RequestParam(required = false, defaultValue = "0") String pageIndex,
         @RequestParam(required = false, defaultValue = "10") String numberPerPage,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false, defaultValue = "false") boolean includeTotal,
+        @RequestParam(required = false) String fields,
         HttpServletRequest request
     ) {
         return courseResponseService.listCoupons(
@@ -76,6 +84,9 @@ public class CouponCourseController {
             sortOrder,
             pageIndex,
             numberPerPage,
+            cursor,
+            includeTotal,
+            fields,
             request.getRemoteAddr()
         );
     }
@@ -0,0 +1,176 @@
+package com.huythanh0x.udemycoupons.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.huythanh0x.udemycoupons.dto.PagedCouponResponseDTO;
+import com.huythanh0x.udemycoupons.utils.Constant;
+import com.huythanh0x.udemycoupons.utils.LastFetchTimeManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of coupon list pages: an in-process LRU in front of Redis, in front of MySQL.
+ * <p>
+ * Entries are keyed by the normalized request plus the coupon list version, a Redis counter bumped after every write
+ * to the coupon table ({@link LastFetchTimeManager#bumpCouponListVersion()}, also called by
+ * {@code updateLastBulkRefreshCoupon}). The version is read on every request, before the database, so a page is never
+ * served once a later write has completed; pages of older versions are simply no longer looked up and age out of the
+ * LRU ({@code custom.list-cache.local-max-entries}) and Redis ({@code custom.list-cache.redis-ttl-minutes}).
+ * Without Redis there is no version to trust, so requests bypass the cache.
+ * <p>
+ * Hits and misses per tier are exported as {@code coupon.list.cache.requests} and the hit ratio per tier as
+ * {@code coupon.list.cache.hit.ratio}, once bound to a registry.
+ */
+public class CouponListCache implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(CouponListCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final Duration redisTtl;
+    // Access-ordered, so the eldest entry is the least recently used; guarded by itself
+    private final LinkedHashMap<String, PagedCouponResponseDTO> local;
+    private long localVersion = -1;
+    private final AtomicLong localHits = new AtomicLong();
+    private final AtomicLong localMisses = new AtomicLong();
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong redisMisses = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+
+    /**
+     * @param objectMapper    serializes pages stored in Redis
+     * @param localMaxEntries maximum pages held in process
+     * @param redisTtl        lifetime of pages stored in Redis
+     */
+    public CouponListCache(ObjectMapper objectMapper, int localMaxEntries, Duration redisTtl) {
+        this.objectMapper = objectMapper;
+        this.redisTtl = redisTtl;
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PagedCouponResponseDTO> eldest) {
+                return size() > localMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached page for a request of the current version, loading and caching it on a miss.
+     *
+     * @param requestKey normalized request parameters; equal keys must yield equal pages
+     * @param loader     reads the page from the database
+     * @return the page
+     */
+    public PagedCouponResponseDTO get(String requestKey, Supplier<PagedCouponResponseDTO> loader) {
+        Long version = LastFetchTimeManager.loadCouponListVersion();
+        if (version == null) {
+            bypassed.incrementAndGet();
+            return loader.get();
+        }
+        String key = Constant.REDIS_KEY_COUPON_LIST_PREFIX + version + ":" + sha256(requestKey);
+
+        PagedCouponResponseDTO page = getLocal(version, key);
+        if (page != null) {
+            localHits.incrementAndGet();
+            return page;
+        }
+        localMisses.incrementAndGet();
+
+        page = getRedis(key);
+        if (page != null) {
+            redisHits.incrementAndGet();
+        } else {
+            redisMisses.incrementAndGet();
+            page = loader.get();
+            putRedis(key, page);
+        }
+        putLocal(version, key, page);
+        return page;
+    }
+
+    private PagedCouponResponseDTO getLocal(long version, String key) {
+        synchronized (local) {
+            if (version > localVersion) {
+                // Every entry belongs to an older version and can no longer be hit
+                local.clear();
+                localVersion = version;
+            }
+            return local.get(key);
+        }
+    }
+
+    private void putLocal(long version, String key, PagedCouponResponseDTO page) {
+        synchronized (local) {
+            // A newer version was seen meanwhile; this page would never be hit
+            if (version == localVersion) {
+                local.put(key, page);
+            }
+        }
+    }
+
+    private PagedCouponResponseDTO getRedis(String key) {
+        try {
+            String json = RedisService.getInstance().getString(key);
+            return json != null ? objectMapper.readValue(json, PagedCouponResponseDTO.class) : null;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to read coupon list page {} from Redis: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putRedis(String key, PagedCouponResponseDTO page) {
+        try {
+            RedisService.getInstance().set(key, objectMapper.writeValueAsString(page), redisTtl);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to cache coupon list page {} in Redis: {}", key, e.getMessage());
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTier(registry, "local", localHits, localMisses);
+        bindTier(registry, "redis", redisHits, redisMisses);
+        FunctionCounter.builder("coupon.list.cache.bypassed", bypassed, AtomicLong::get)
+                .description("Coupon list requests served from the database because the list version was unavailable")
+                .register(registry);
+    }
+
+    private static void bindTier(MeterRegistry registry, String tier, AtomicLong hits, AtomicLong misses) {
+        FunctionCounter.builder("coupon.list.cache.requests", hits, AtomicLong::get)
+                .description("Coupon list lookups per cache tier")
+                .tags("tier", tier, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("coupon.list.cache.requests", misses, AtomicLong::get)
+                .description("Coupon list lookups per cache tier")
+                .tags("tier", tier, "result", "miss")
+                .register(registry);
+        Gauge.builder("coupon.list.cache.hit.ratio", () -> {
+                    long hitCount = hits.get();
+                    long total = hitCount + misses.get();
+                    return total == 0 ? 0 : hitCount / (double) total;
+                })
+                .description("Share of coupon list lookups answered by this cache tier")
+                .tags("tier", tier)
+                .register(registry);
+    }
+}
@@ -3,16 +3,22 @@ package com.huythanh0x.udemycoupons.service;
 import com.huythanh0x.udemycoupons.dto.*;
 import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
 import com.huythanh0x.udemycoupons.repository.CouponCourseRepository;
+import com.huythanh0x.udemycoupons.utils.ExecutorFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +35,25 @@ public class CourseDetailService {
     @Autowired
     private CouponCourseRepository couponCourseRepository;
     
+    @Autowired
+    private ExecutorFactory executorFactory;
+    
+    @Value("${custom.udemy-api-fanout-threads:8}")
+    private int fanOutThreads;
+    
+    private ExecutorService upstreamExecutor;
+    
+    @PostConstruct
+    void initUpstreamExecutor() {
+        // Independent Udemy calls are fanned out; on virtual threads the pool size hint is ignored
+        upstreamExecutor = executorFactory.newExecutor("udemy-api", fanOutThreads);
+    }
+    
+    @PreDestroy
+    void shutdownUpstreamExecutor() {
+        upstreamExecutor.shutdownNow();
+    }
+    
     /**
      * Gets comprehensive course details including reviews, curriculum, and related courses.
      * Results are cached for 24 hours.
@@ -48,10 +73,16 @@ public class CourseDetailService {
             return null;
         }
         
-        // Fetch additional details from Udemy API
-        JSONObject landingComponents = udemyApiClient.getCourseLandingComponentsJson(courseId, couponCode);
-        JSONObject reviewsResponse = udemyApiClient.getCourseReviewsJson(courseId, 1);
-        JSONObject relatedCoursesResponse = udemyApiClient.getRelatedCoursesJson(courseId);
+        // Fetch additional details from Udemy API concurrently (the three calls are independent)
+        CompletableFuture<JSONObject> landingFuture = CompletableFuture.supplyAsync(
+                () -> udemyApiClient.getCourseLandingComponentsJson(courseId, couponCode), upstreamExecutor);
+        CompletableFuture<JSONObject> reviewsFuture = CompletableFuture.supplyAsync(
+                () -> udemyApiClient.getCourseReviewsJson(courseId, 1), upstreamExecutor);
+        CompletableFuture<JSONObject> relatedFuture = CompletableFuture.supplyAsync(
+                () -> udemyApiClient.getRelatedCoursesJson(courseId), upstreamExecutor);
+        JSONObject landingComponents = landingFuture.join();
+        JSONObject reviewsResponse = reviewsFuture.join();
+        JSONObject relatedCoursesResponse = relatedFuture.join();
         
         // Extract startPreviewId from previewVideo URL or landing components
         Long startPreviewId = null;
@@ -1,6 +1,7 @@
 package com.huythanh0x.udemycoupons.service;
 
 import com.huythanh0x.udemycoupons.crawler_runner.UdemyCouponCourseExtractor;
+import com.huythanh0x.udemycoupons.dto.CouponCardDTO;
 import com.huythanh0x.udemycoupons.dto.CouponUpdateRequestDTO;
 import com.huythanh0x.udemycoupons.dto.PagedCouponResponseDTO;
 import com.huythanh0x.udemycoupons.exception.BadRequestException;
@@ -8,6 +9,9 @@ import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
 import com.huythanh0x.udemycoupons.model.coupon.CouponCourseHistory;
 import com.huythanh0x.udemycoupons.repository.CouponCourseHistoryRepository;
 import com.huythanh0x.udemycoupons.repository.CouponCourseRepository;
+import com.huythanh0x.udemycoupons.repository.CouponCourseSearchRepository;
+import com.huythanh0x.udemycoupons.repository.CouponCursor;
+import com.huythanh0x.udemycoupons.repository.CouponSearchCriteria;
 import com.huythanh0x.udemycoupons.repository.ExpiredCouponRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +22,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import com.huythanh0x.udemycoupons.utils.Constant;
+import com.huythanh0x.udemycoupons.utils.LastFetchTimeManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Service class for handling course response operations.
@@ -28,15 +37,18 @@ public class CourseResponseService {
     private final CouponCourseRepository couponCourseRepository;
     private final ExpiredCouponRepository expiredCouponRepository;
     private final CouponCourseHistoryRepository couponCourseHistoryRepository;
+    private final CouponListCache couponListCache;
 
 
     @Autowired
     public CourseResponseService(CouponCourseRepository couponCourseRepository,
                                  ExpiredCouponRepository expiredCouponRepository,
-                                 CouponCourseHistoryRepository couponCourseHistoryRepository) {
+                                 CouponCourseHistoryRepository couponCourseHistoryRepository,
+                                 CouponListCache couponListCache) {
         this.couponCourseRepository = couponCourseRepository;
         this.expiredCouponRepository = expiredCouponRepository;
         this.couponCourseHistoryRepository = couponCourseHistoryRepository;
+        this.couponListCache = couponListCache;
     }
 
     /**
@@ -50,6 +62,15 @@ public class CourseResponseService {
      * - usesRemaining: Sort by remaining coupon uses
      * 
      * Sort order: asc (ascending) or desc (descending)
+     *
+     * Passing a {@code cursor} (empty for the first page) switches to keyset pagination: {@code pageIndex} is
+     * ignored, each response carries the {@code nextCursor} to pass back, and the total is only counted when
+     * {@code includeTotal} is set. Cursor pages are ordered by the sort field, also for text queries.
+     *
+     * Coupons are returned as cards without description and preview video; {@code fields} (comma-separated) adds
+     * either of them back.
+     *
+     * Pages are served from {@link CouponListCache} while no coupon has been written since they were cached.
      */
     public PagedCouponResponseDTO listCoupons(
         String category,
@@ -62,12 +83,25 @@ public class CourseResponseService {
         String sortOrder,
         String pageIndex,
         String numberPerPage,
+        String cursor,
+        boolean includeTotal,
+        String fields,
         String remoteAddr
     ) {
         handlePagingParameters(pageIndex, numberPerPage);
+        Set<String> selectedFields = parseFields(fields);
         
         // Validate and create sort
         Sort sort = createSort(sortBy, sortOrder);
+        CouponSearchCriteria criteria = toSearchCriteria(category, rating, contentLength, level, language, query);
+        if (cursor != null) {
+            Sort.Order order = sort.iterator().next();
+            int size = Math.min(Math.max(Integer.parseInt(numberPerPage), 1), Constant.MAX_PAGE_SIZE);
+            String cacheKey = String.join("|", "cursor", criteria.toString(), new TreeSet<>(selectedFields).toString(),
+                order.toString(), cursor, String.valueOf(size), String.valueOf(includeTotal));
+            return couponListCache.get(cacheKey,
+                () -> listCouponsByCursor(criteria, selectedFields, order, cursor, size, includeTotal));
+        }
         Pageable pageable = PageRequest.of(
             Integer.parseInt(pageIndex), 
             Math.min(Integer.parseInt(numberPerPage), Constant.MAX_PAGE_SIZE),
@@ -75,39 +109,82 @@ public class CourseResponseService {
         );
 
         boolean hasQuery = query != null && !query.isBlank();
-        boolean hasStructuredFilters =
-            (rating != null && !rating.equals("-1")) ||
-                (contentLength != null && !contentLength.equals("-1")) ||
-                (level != null && !level.isBlank()) ||
-                (category != null && !category.isBlank()) ||
-                (language != null && !language.isBlank());
-
-        Page<CouponCourseData> page;
-
-        if (hasQuery && hasStructuredFilters) {
-            // For now, prefer full-text style search when a query is present.
-            page = couponCourseRepository.findByTitleContainingOrDescriptionContainingOrHeadingContaining(
-                query, query, query, pageable
-            );
-        } else if (hasQuery) {
-            page = couponCourseRepository.findByTitleContainingOrDescriptionContainingOrHeadingContaining(
-                query, query, query, pageable
-            );
-        } else if (hasStructuredFilters) {
-            page = couponCourseRepository
-                .findByRatingGreaterThanAndContentLengthGreaterThanAndLevelContainingAndCategoryIsContainingIgnoreCaseAndLanguageContaining(
-                    Float.parseFloat(rating),
-                    Integer.parseInt(contentLength),
-                    level,
-                    category,
-                    language,
-                    pageable
-                );
-        } else {
-            page = couponCourseRepository.findAll(pageable);
+
+        // Text and structured filters run as one statement; see CouponCourseSearchRepository
+        // Text searches are ranked by relevance unless a sort was requested explicitly
+        Pageable searchPageable = hasQuery && (sortBy == null || sortBy.isBlank())
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+            : pageable;
+        String cacheKey = String.join("|", "page", criteria.toString(), new TreeSet<>(selectedFields).toString(),
+            searchPageable.toString());
+        return couponListCache.get(cacheKey, () -> {
+            Page<CouponCardDTO> page = couponCourseRepository.search(criteria, selectedFields, searchPageable);
+            return new PagedCouponResponseDTO(page);
+        });
+    }
+
+    /**
+     * Keyset pagination: seeks past the cursor instead of skipping an offset and skips the count query unless
+     * asked, so every page costs the same however deep the client scrolls.
+     */
+    private PagedCouponResponseDTO listCouponsByCursor(
+        CouponSearchCriteria criteria,
+        Set<String> fields,
+        Sort.Order order,
+        String cursor,
+        int size,
+        boolean includeTotal
+    ) {
+        try {
+            CouponCursor after = cursor.isBlank() ? null : CouponCursor.decode(cursor);
+            return new PagedCouponResponseDTO(couponCourseRepository.seek(
+                criteria, fields, order.getProperty(), order.isAscending(), after, size, includeTotal
+            ));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    /**
+     * @param fields comma-separated optional fields, may be null
+     * @return the selected optional fields
+     * @throws BadRequestException if a field is not one of {@link CouponCourseSearchRepository#OPTIONAL_FIELDS}
+     */
+    private static Set<String> parseFields(String fields) {
+        Set<String> selected = new HashSet<>();
+        if (fields == null || fields.isBlank()) {
+            return selected;
         }
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!CouponCourseSearchRepository.OPTIONAL_FIELDS.contains(trimmed)) {
+                throw new BadRequestException("Unsupported field: " + trimmed + ", supported: "
+                    + String.join(", ", new TreeSet<>(CouponCourseSearchRepository.OPTIONAL_FIELDS)));
+            }
+            selected.add(trimmed);
+        }
+        return selected;
+    }
 
-        return new PagedCouponResponseDTO(page);
+    private static CouponSearchCriteria toSearchCriteria(
+        String category,
+        String rating,
+        String contentLength,
+        String level,
+        String language,
+        String query
+    ) {
+        return new CouponSearchCriteria(
+            query,
+            rating != null && !rating.equals("-1") ? Float.parseFloat(rating) : null,
+            contentLength != null && !contentLength.equals("-1") ? Integer.parseInt(contentLength) : null,
+            level,
+            category,
+            language
+        );
     }
 
     /**
@@ -183,6 +260,7 @@ public class CourseResponseService {
             .couponUrl(saved.getCouponUrl())
             .status(existedBefore ? "reactivated" : "new")
             .build());
+        LastFetchTimeManager.bumpCouponListVersion();
         return saved;
     }
 
@@ -193,6 +271,7 @@ public class CourseResponseService {
      */
     public void deleteCouponByCourseId(Integer courseId) {
         couponCourseRepository.deleteById(courseId);
+        LastFetchTimeManager.bumpCouponListVersion();
     }
 
     /**
@@ -211,7 +290,9 @@ public class CourseResponseService {
             throw new BadRequestException("Course id not found");
         }
         // In the future, copy allowed fields from request into existing before saving.
-        return couponCourseRepository.save(existing);
+        CouponCourseData saved = couponCourseRepository.save(existing);
+        LastFetchTimeManager.bumpCouponListVersion();
+        return saved;
     }
 
     /**
@@ -74,3 +74,58 @@ tasks.register<JavaExec>("debugExtractor") {
     // - system property: udemy.debugUrl
 }
 
+
+// Compare platform vs virtual executor modes against a local stub server.
+tasks.register<JavaExec>("benchmarkExecutorModes") {
+    group = "verification"
+    description = "Benchmarks platform vs virtual executor modes for blocking upstream fetches"
+
+    jvmArgs("-Dlogback.configurationFile=classpath:logback-spring.xml")
+
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.huythanh0x.udemycoupons.tools.ExecutorModeBenchmarkMain")
+}
+
+// Compare per-row coupon writes with the batched upsert against a local MySQL.
+tasks.register<JavaExec>("benchmarkCouponUpsert") {
+    group = "verification"
+    description = "Benchmarks rows/second of per-row merge vs batched INSERT ... ON DUPLICATE KEY UPDATE"
+
+    jvmArgs("-Dlogback.configurationFile=classpath:logback-spring.xml")
+
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.huythanh0x.udemycoupons.tools.CouponUpsertBenchmarkMain")
+}
+
+// Compare org.json DOM parsing with streaming field extraction on recorded Udemy API responses.
+tasks.register<JavaExec>("benchmarkJsonExtraction") {
+    group = "verification"
+    description = "Benchmarks throughput and allocation of org.json DOM vs streaming JSON field extraction"
+
+    jvmArgs("-Dlogback.configurationFile=classpath:logback-spring.xml")
+
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.huythanh0x.udemycoupons.tools.JsonExtractionBenchmarkMain")
+}
+
+// Compare LIKE substring search with FULLTEXT search latency under concurrent load (read-only, existing schema).
+tasks.register<JavaExec>("benchmarkSearch") {
+    group = "verification"
+    description = "Benchmarks coupon search latency percentiles of LIKE scans vs the FULLTEXT index at several concurrency levels"
+
+    jvmArgs("-Dlogback.configurationFile=classpath:logback-spring.xml")
+
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.huythanh0x.udemycoupons.tools.SearchLoadBenchmarkMain")
+}
+
+// Compare the JSON size and serialization cost of listing pages of full entities vs slim coupon cards.
+tasks.register<JavaExec>("benchmarkListingPayload") {
+    group = "verification"
+    description = "Benchmarks payload size, throughput and allocation of serializing full coupon entities vs coupon cards"
+
+    jvmArgs("-Dlogback.configurationFile=classpath:logback-spring.xml")
+
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.huythanh0x.udemycoupons.tools.ListingPayloadBenchmarkMain")
+}
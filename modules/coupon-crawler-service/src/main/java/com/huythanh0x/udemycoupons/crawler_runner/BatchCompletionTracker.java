@@ -0,0 +1,171 @@
+package com.huythanh0x.udemycoupons.crawler_runner;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks completion of validation batches that run on a long-lived worker pool.
+ * <p>
+ * Each batch registers its tasks through {@link Batch#submit} (blocking work on an executor) or
+ * {@link Batch#track} (an already asynchronous pipeline), then waits in {@link Batch#awaitCompletion()},
+ * which parks the coordinating thread instead of polling. Per batch it records:
+ * <ul>
+ *   <li>{@code crawler.batch.duration}: wall time of the whole batch</li>
+ *   <li>{@code crawler.batch.task.duration}: time of each URL</li>
+ *   <li>{@code crawler.batch.wait.cpu}: CPU time the coordinating thread spent waiting</li>
+ *   <li>{@code crawler.batch.stragglers}: URLs slower than the straggler threshold</li>
+ * </ul>
+ * and logs the slowest URLs so stragglers can be identified.
+ */
+public class BatchCompletionTracker {
+    private static final Logger log = LoggerFactory.getLogger(BatchCompletionTracker.class);
+    private static final int STRAGGLERS_TO_LOG = 5;
+
+    private final long stragglerThresholdNanos;
+    private final Timer batchTimer;
+    private final Timer taskTimer;
+    private final Timer waitCpuTimer;
+    private final Counter stragglerCounter;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * @param meterRegistry         registry receiving the batch metrics
+     * @param mode                  validation mode, used as metric tag
+     * @param stragglerThresholdMs  tasks slower than this are reported as stragglers
+     */
+    public BatchCompletionTracker(MeterRegistry meterRegistry, String mode, long stragglerThresholdMs) {
+        this.stragglerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(stragglerThresholdMs);
+        this.batchTimer = Timer.builder("crawler.batch.duration")
+                .description("Wall time to validate one batch of coupon URLs")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        this.taskTimer = Timer.builder("crawler.batch.task.duration")
+                .description("Time to validate a single coupon URL")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        this.waitCpuTimer = Timer.builder("crawler.batch.wait.cpu")
+                .description("CPU time consumed by the coordinating thread while waiting for a batch")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        this.stragglerCounter = Counter.builder("crawler.batch.stragglers")
+                .description("Coupon URLs slower than the straggler threshold")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts tracking a new batch; its wall time is measured from this call.
+     *
+     * @param expectedTasks expected number of tasks, used for sizing only
+     * @return the batch handle
+     */
+    public Batch newBatch(int expectedTasks) {
+        return new Batch(expectedTasks);
+    }
+
+    /**
+     * Summary of a finished batch.
+     */
+    public record BatchStats(int tasks, long wallTimeMs, long slowestTaskMs, int stragglers) {
+    }
+
+    private record TaskTiming(String key, long durationNanos) {
+    }
+
+    public class Batch {
+        private final long startNanos = System.nanoTime();
+        private final List<CompletableFuture<?>> futures;
+        private final ConcurrentLinkedQueue<TaskTiming> timings = new ConcurrentLinkedQueue<>();
+
+        private Batch(int expectedTasks) {
+            this.futures = new ArrayList<>(expectedTasks);
+        }
+
+        /**
+         * Runs a blocking task on the given executor and tracks it as part of this batch.
+         * The task is expected to handle its own failures.
+         */
+        public CompletableFuture<Void> submit(Executor executor, String key, Runnable task) {
+            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                } finally {
+                    recordTask(key, System.nanoTime() - start);
+                }
+            }, executor);
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * Starts an asynchronous task and tracks it as part of this batch.
+         * The task duration is measured from this call until the returned future completes.
+         */
+        public <T> CompletableFuture<T> track(String key, Supplier<CompletableFuture<T>> task) {
+            long start = System.nanoTime();
+            CompletableFuture<T> future = task.get()
+                    .whenComplete((ignored, error) -> recordTask(key, System.nanoTime() - start));
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * Blocks until every task of the batch has finished, then records and logs the batch metrics.
+         * Task failures are not rethrown; tasks report their own failures.
+         */
+        public BatchStats awaitCompletion() {
+            long cpuBefore = currentThreadCpuNanos();
+            CompletableFuture.allOf(futures.stream()
+                    .map(future -> future.exceptionally(e -> null))
+                    .toArray(CompletableFuture[]::new)).join();
+            long cpuAfter = currentThreadCpuNanos();
+            long wallNanos = System.nanoTime() - startNanos;
+
+            batchTimer.record(wallNanos, TimeUnit.NANOSECONDS);
+            if (cpuBefore >= 0 && cpuAfter >= 0) {
+                waitCpuTimer.record(cpuAfter - cpuBefore, TimeUnit.NANOSECONDS);
+            }
+
+            List<TaskTiming> stragglers = timings.stream()
+                    .filter(timing -> timing.durationNanos() > stragglerThresholdNanos)
+                    .sorted(Comparator.comparingLong(TaskTiming::durationNanos).reversed())
+                    .collect(Collectors.toList());
+            long slowestNanos = timings.stream().mapToLong(TaskTiming::durationNanos).max().orElse(0);
+            stragglerCounter.increment(stragglers.size());
+
+            BatchStats stats = new BatchStats(futures.size(), TimeUnit.NANOSECONDS.toMillis(wallNanos),
+                    TimeUnit.NANOSECONDS.toMillis(slowestNanos), stragglers.size());
+            log.info("Batch of {} URLs finished in {} ms (slowest {} ms, {} stragglers)",
+                    stats.tasks(), stats.wallTimeMs(), stats.slowestTaskMs(), stats.stragglers());
+            stragglers.stream().limit(STRAGGLERS_TO_LOG).forEach(timing ->
+                    log.info("Straggler: {} took {} ms", timing.key(),
+                            TimeUnit.NANOSECONDS.toMillis(timing.durationNanos())));
+            return stats;
+        }
+
+        private void recordTask(String key, long durationNanos) {
+            timings.add(new TaskTiming(key, durationNanos));
+            taskTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private long currentThreadCpuNanos() {
+            return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : -1;
+        }
+    }
+}
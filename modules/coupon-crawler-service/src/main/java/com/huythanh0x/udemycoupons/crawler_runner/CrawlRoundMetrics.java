@@ -0,0 +1,123 @@
+package com.huythanh0x.udemycoupons.crawler_runner;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-round crawler metrics, most importantly how many database round-trips a round costs.
+ * <p>
+ * Round-trips are the JDBC statements prepared by Hibernate during the round (requires
+ * {@code spring.jpa.properties.hibernate.generate_statistics=true}) plus any statements issued outside
+ * Hibernate and reported through {@link Round#addRoundTrips(long)}. Exported as
+ * {@code crawler.round.db.roundtrips} (distribution per round) and {@code crawler.round.db.roundtrips.last}.
+ * Round latency is exported as {@code crawler.round.duration} and {@code crawler.round.first.coupon}, the time
+ * from the start of a round until its first valid coupon is persisted.
+ */
+@Component
+public class CrawlRoundMetrics {
+    private static final Logger log = LoggerFactory.getLogger(CrawlRoundMetrics.class);
+
+    private final Statistics statistics;
+    private final DistributionSummary roundTripsPerRound;
+    private final DistributionSummary urlsPerRound;
+    private final Timer roundDuration;
+    private final Timer timeToFirstCoupon;
+    private final AtomicLong lastRoundTrips = new AtomicLong();
+
+    public CrawlRoundMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!hibernateStatistics.isStatisticsEnabled()) {
+            log.warn("Hibernate statistics are disabled; crawler.round.db.roundtrips will only count explicit JDBC calls");
+        }
+        this.statistics = hibernateStatistics;
+        this.roundTripsPerRound = DistributionSummary.builder("crawler.round.db.roundtrips")
+                .description("Database round-trips issued during one crawl round")
+                .register(meterRegistry);
+        this.urlsPerRound = DistributionSummary.builder("crawler.round.urls")
+                .description("Coupon URLs validated in one crawl round")
+                .register(meterRegistry);
+        this.roundDuration = Timer.builder("crawler.round.duration")
+                .description("Wall time of one crawl round, from the first source request to the last write")
+                .register(meterRegistry);
+        this.timeToFirstCoupon = Timer.builder("crawler.round.first.coupon")
+                .description("Time from the start of a crawl round until its first valid coupon is persisted")
+                .register(meterRegistry);
+        Gauge.builder("crawler.round.db.roundtrips.last", lastRoundTrips, AtomicLong::get)
+                .description("Database round-trips issued during the last completed crawl round")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts measuring a crawl round. Must be finished on the same logical round with {@link Round#finish(int)}.
+     *
+     * @return the round handle
+     */
+    public Round startRound() {
+        return new Round(statementCount());
+    }
+
+    private long statementCount() {
+        return statistics.isStatisticsEnabled() ? statistics.getPrepareStatementCount() : 0;
+    }
+
+    public class Round {
+        private final long startStatements;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong explicitRoundTrips = new AtomicLong();
+        private final AtomicBoolean firstCouponRecorded = new AtomicBoolean();
+
+        private Round(long startStatements) {
+            this.startStatements = startStatements;
+        }
+
+        /**
+         * Counts round-trips that Hibernate statistics do not see (e.g. plain JDBC batches).
+         *
+         * @param roundTrips number of statements sent to the database
+         */
+        public void addRoundTrips(long roundTrips) {
+            explicitRoundTrips.addAndGet(roundTrips);
+        }
+
+        /**
+         * Records the time to the first persisted coupon; only the first call of a round has an effect.
+         */
+        public void couponsPersisted() {
+            if (firstCouponRecorded.compareAndSet(false, true)) {
+                long elapsed = System.nanoTime() - startNanos;
+                timeToFirstCoupon.record(elapsed, TimeUnit.NANOSECONDS);
+                log.info("First coupon of the round persisted after {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+
+        /**
+         * Records the round's metrics and logs a one-line summary.
+         *
+         * @param urlsProcessed number of coupon URLs validated in the round
+         * @return database round-trips issued during the round
+         */
+        public long finish(int urlsProcessed) {
+            long roundTrips = Math.max(0, statementCount() - startStatements) + explicitRoundTrips.get();
+            long elapsed = System.nanoTime() - startNanos;
+            roundDuration.record(elapsed, TimeUnit.NANOSECONDS);
+            roundTripsPerRound.record(roundTrips);
+            urlsPerRound.record(urlsProcessed);
+            lastRoundTrips.set(roundTrips);
+            log.info("Crawl round finished in {} ms: {} URLs, {} DB round-trips",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), urlsProcessed, roundTrips);
+            return roundTrips;
+        }
+    }
+}
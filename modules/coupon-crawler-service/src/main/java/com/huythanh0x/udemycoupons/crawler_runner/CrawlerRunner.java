@@ -1,5 +1,6 @@
 package com.huythanh0x.udemycoupons.crawler_runner;
 
+import com.huythanh0x.udemycoupons.crawler_runner.base.CouponUrlCrawlerBase;
 import com.huythanh0x.udemycoupons.crawler_runner.crawler.EnextCrawler;
 import com.huythanh0x.udemycoupons.crawler_runner.crawler.RealDiscountCrawler;
 import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
@@ -7,8 +8,16 @@ import com.huythanh0x.udemycoupons.model.coupon.CouponCourseHistory;
 import com.huythanh0x.udemycoupons.model.coupon.ExpiredCourseData;
 import com.huythanh0x.udemycoupons.repository.CouponCourseHistoryRepository;
 import com.huythanh0x.udemycoupons.repository.CouponCourseRepository;
+import com.huythanh0x.udemycoupons.repository.CouponRefreshProjection;
+import com.huythanh0x.udemycoupons.repository.CouponUrlProjection;
 import com.huythanh0x.udemycoupons.repository.ExpiredCouponRepository;
+import com.huythanh0x.udemycoupons.service.CourseSlugIndex;
+import com.huythanh0x.udemycoupons.utils.ExecutorFactory;
 import com.huythanh0x.udemycoupons.utils.LastFetchTimeManager;
+import com.huythanh0x.udemycoupons.utils.UsesDepletionEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
@@ -17,9 +26,11 @@ import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,8 +38,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -45,6 +64,11 @@ public class CrawlerRunner implements ApplicationRunner {
     CouponCourseHistoryRepository couponCourseHistoryRepository;
     EnextCrawler enextCrawler;
     RealDiscountCrawler realDiscountCrawler;
+    List<CouponUrlCrawlerBase> couponUrlSources;
+    ExecutorFactory executorFactory;
+    MeterRegistry meterRegistry;
+    CrawlRoundMetrics crawlRoundMetrics;
+    CourseSlugIndex courseSlugIndex;
     Integer intervalTime;
     @Value("${custom.number-of-request-thread}")
     Integer numberOfThread;
@@ -60,10 +84,32 @@ public class CrawlerRunner implements ApplicationRunner {
     Boolean enableSmartRefresh;
     @Value("${custom.batch-processing-size:100}")
     Integer batchProcessingSize;
+    @Value("${custom.validation-mode:blocking}")
+    String validationMode;
+    @Value("${custom.async-max-in-flight:200}")
+    Integer asyncMaxInFlight;
+    @Value("${custom.batch-straggler-threshold-ms:10000}")
+    Long batchStragglerThresholdMs;
+    @Value("${custom.stream-batch-linger-ms:2000}")
+    Long streamBatchLingerMs;
+    @Value("${custom.refresh-forecast-max-hours:24}")
+    Integer refreshForecastMaxHours;
+    @Value("${custom.refresh-mode:round}")
+    String refreshMode;
+    @Value("${custom.refresh-min-interval-minutes:5}")
+    Integer refreshMinIntervalMinutes;
+    private ExecutorService validatorPool;
+    private ExecutorService sourcePool;
+    private BatchCompletionTracker batchTracker;
+    private RefreshScheduler refreshScheduler;
+    private static final String VALIDATION_MODE_ASYNC = "async";
+    private static final String REFRESH_MODE_SCHEDULED = "scheduled";
     private static final String HISTORY_STATUS_NEW = "new";
     private static final String HISTORY_STATUS_REACTIVATED = "reactivated";
     private static final String HISTORY_STATUS_REFRESHED = "refreshed";
     private static final String HISTORY_STATUS_EXPIRED = "expired";
+    // Poison pill marking the end of a round's URL stream; compared by identity so no real URL can match it
+    private static final String END_OF_STREAM = new String("<end-of-stream>");
 
     /**
      * Executes the method to start the crawler when the application runs.
@@ -80,19 +126,72 @@ public class CrawlerRunner implements ApplicationRunner {
                          CouponCourseHistoryRepository couponCourseHistoryRepository,
                          EnextCrawler enextCrawler,
                          RealDiscountCrawler realDiscountCrawler,
+                         ExecutorFactory executorFactory,
+                         MeterRegistry meterRegistry,
+                         CrawlRoundMetrics crawlRoundMetrics,
+                         CourseSlugIndex courseSlugIndex,
                          @Value("${custom.interval-time}") Integer intervalTime) {
         this.couponCourseRepository = couponCourseRepository;
         this.expiredCouponRepository = expiredCouponRepository;
         this.couponCourseHistoryRepository = couponCourseHistoryRepository;
         this.enextCrawler = enextCrawler;
         this.realDiscountCrawler = realDiscountCrawler;
+        this.couponUrlSources = List.of(enextCrawler, realDiscountCrawler);
+        this.executorFactory = executorFactory;
+        this.meterRegistry = meterRegistry;
+        this.crawlRoundMetrics = crawlRoundMetrics;
+        this.courseSlugIndex = courseSlugIndex;
         this.intervalTime = intervalTime;
     }
 
+    /**
+     * Creates the long-lived validation pool shared by all batches, the pool running one task per URL source,
+     * and the tracker reporting batch timings.
+     */
+    @PostConstruct
+    void initValidatorPool() {
+        validatorPool = executorFactory.newExecutor("coupon-validator", numberOfThread);
+        sourcePool = executorFactory.newExecutor("coupon-source", couponUrlSources.size());
+        batchTracker = new BatchCompletionTracker(meterRegistry,
+                VALIDATION_MODE_ASYNC.equalsIgnoreCase(validationMode) ? VALIDATION_MODE_ASYNC : "blocking",
+                batchStragglerThresholdMs);
+        if (REFRESH_MODE_SCHEDULED.equalsIgnoreCase(refreshMode)) {
+            refreshScheduler = new RefreshScheduler(couponCourseRepository, this::refreshCouponBatch,
+                    new RefreshScheduler.Settings(
+                            Duration.ofHours(refreshOldHours),
+                            Duration.ofHours(Math.max(refreshOldHours, refreshForecastMaxHours)),
+                            Duration.ofHours(refreshExpiringHours),
+                            refreshMinUsesRemaining,
+                            Duration.ofMinutes(refreshMinIntervalMinutes),
+                            Duration.ofMillis(intervalTime),
+                            batchProcessingSize),
+                    meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    void shutdownValidatorPool() throws InterruptedException {
+        if (refreshScheduler != null) {
+            refreshScheduler.stop();
+        }
+        sourcePool.shutdownNow();
+        validatorPool.shutdownNow();
+        if (!validatorPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Validator pool did not terminate within 10 seconds");
+        }
+    }
+
     /**
      * Starts the crawler process that continuously fetches coupon URLs, filters them,
      * saves data, and delays until the next round.
      *
+     * Within a round all URL sources crawl concurrently and stream each discovered URL through the filter
+     * into a queue; the runner cuts that queue into batches and validates them while the sources are still
+     * crawling, so the first coupons are persisted long before the slowest source has finished.
+     *
+     * With {@code custom.refresh-mode=scheduled} rounds only crawl the sources: active coupons are refreshed
+     * continuously by the {@link RefreshScheduler}, which is reloaded after each round to pick up new coupons.
+     *
      * Uses a single thread executor to execute the crawler in a separate thread.
      *
      * @throws InterruptedException if the thread is interrupted during execution.
@@ -101,37 +200,36 @@ public class CrawlerRunner implements ApplicationRunner {
         AtomicLong startTime = new AtomicLong(LastFetchTimeManager.loadLasFetchedTimeInMilliSecond());
         Executors.newSingleThreadExecutor().execute(() -> {
             try {
+                if (refreshScheduler != null) {
+                    refreshScheduler.start();
+                }
                 delayUntilTheNextRound(startTime.get());
                 while (true) {
                     startTime.set(System.currentTimeMillis());
+                    CrawlRoundMetrics.Round round = crawlRoundMetrics.startRound();
                     
-                    List<String> scrapedCouponUrls = new ArrayList<>();
-                    scrapedCouponUrls.addAll(enextCrawler.getAllCouponUrls());
-                    scrapedCouponUrls.addAll(realDiscountCrawler.getAllCouponUrls());
-                    
-                    Set<String> allCouponsNeedingRefresh = new HashSet<>();
-                    Instant expirationThreshold = Instant.now().plusSeconds(refreshExpiringHours * 3600L);
-                    LocalDateTime updatedBefore = LocalDateTime.now().minusHours(refreshOldHours);
-                    
-                    allCouponsNeedingRefresh = couponCourseRepository.findCouponUrlsNeedingRefresh(
-                        expirationThreshold, 
-                        refreshMinUsesRemaining,
-                        updatedBefore
-                    );
-                    log.info("Found {} coupons needing refresh (expiring within {} hours, uses remaining < {}, not updated in last {} hours)",
-                            allCouponsNeedingRefresh.size(), refreshExpiringHours, refreshMinUsesRemaining, refreshOldHours);
+                    Set<String> allCouponsNeedingRefresh = refreshScheduler != null
+                            ? Set.of()
+                            : findCouponsNeedingRefresh();
                     
-                    Set<String> allUrlsToProcess = new HashSet<>(scrapedCouponUrls);
-                    allUrlsToProcess.addAll(allCouponsNeedingRefresh);
-                    
-                    Set<String> newlyScrapedUrls = new HashSet<>(scrapedCouponUrls);
-                    List<String> filterCouponUrls = filterValidCouponUrls(
-                        new ArrayList<>(allUrlsToProcess), 
-                        allCouponsNeedingRefresh,
-                        newlyScrapedUrls
-                    );
+                    CouponUrlFilter couponUrlFilter = new CouponUrlFilter(allCouponsNeedingRefresh,
+                            expiredCouponRepository.findRecentlyCheckedExpiredUrls(
+                                    LocalDateTime.now().minusHours(skipRecentlyCheckedExpiredHours)));
+                    BlockingQueue<String> couponUrlQueue = new LinkedBlockingQueue<>();
+                    // Refresh URLs are known up front, so they fill the first batches while the sources warm up
+                    for (String refreshUrl : allCouponsNeedingRefresh) {
+                        if (couponUrlFilter.acceptRefreshUrl(refreshUrl)) {
+                            couponUrlQueue.add(refreshUrl);
+                        }
+                    }
+                    crawlAllSources(couponUrlFilter, couponUrlQueue)
+                            .whenComplete((ignored, error) -> couponUrlQueue.add(END_OF_STREAM));
                     
-                    saveAllCouponData(filterCouponUrls, numberOfThread);
+                    int processed = saveStreamedCouponData(couponUrlQueue, round);
+                    round.finish(processed);
+                    if (refreshScheduler != null) {
+                        refreshScheduler.reload();
+                    }
                     delayUntilTheNextRound(startTime.get());
                 }
             } catch (InterruptedException e) {
@@ -141,6 +239,77 @@ public class CrawlerRunner implements ApplicationRunner {
         });
     }
 
+    /**
+     * Round-based refresh: every active coupon that expires or runs out of uses soon, runs low on uses or was not
+     * checked recently. Coupons whose depletion rate is known are not re-checked for staleness alone before
+     * {@code custom.refresh-forecast-max-hours}.
+     */
+    private Set<String> findCouponsNeedingRefresh() {
+        Instant expirationThreshold = Instant.now().plusSeconds(refreshExpiringHours * 3600L);
+        LocalDateTime updatedBefore = LocalDateTime.now().minusHours(refreshOldHours);
+        LocalDateTime forecastUpdatedBefore = LocalDateTime.now().minusHours(Math.max(refreshOldHours, refreshForecastMaxHours));
+        
+        Set<String> allCouponsNeedingRefresh = couponCourseRepository.findCouponUrlsNeedingRefresh(
+            expirationThreshold, 
+            refreshMinUsesRemaining,
+            updatedBefore,
+            forecastUpdatedBefore
+        );
+        log.info("Found {} coupons needing refresh (expiring within {} hours, uses remaining < {}, not updated in last {} hours)",
+                allCouponsNeedingRefresh.size(), refreshExpiringHours, refreshMinUsesRemaining, refreshOldHours);
+        return allCouponsNeedingRefresh;
+    }
+
+    /**
+     * Validates and persists one batch dispatched by the {@link RefreshScheduler}, removing coupons found expired
+     * from the main table right away instead of at the end of a round.
+     *
+     * @param couponUrls due coupon URLs
+     */
+    private void refreshCouponBatch(List<String> couponUrls) {
+        log.info("Refreshing {} scheduled coupons", couponUrls.size());
+        Set<String> expiredCouponUrls = new HashSet<>();
+        saveCouponBatch(couponUrls, null, expiredCouponUrls);
+        if (!expiredCouponUrls.isEmpty()) {
+            couponCourseRepository.deleteAllCouponsByUrl(expiredCouponUrls);
+            log.info("Cleaned up {} expired coupons from main table", expiredCouponUrls.size());
+            LastFetchTimeManager.bumpCouponListVersion();
+        }
+    }
+
+    /**
+     * Runs every URL source concurrently on the source pool, passing each discovered URL through the filter
+     * into the queue. A failing source is logged and does not affect the others.
+     *
+     * @param couponUrlFilter filter of the current round
+     * @param couponUrlQueue  queue consumed by the runner
+     * @return a future completing once every source has finished
+     */
+    private CompletableFuture<Void> crawlAllSources(CouponUrlFilter couponUrlFilter, BlockingQueue<String> couponUrlQueue) {
+        CompletableFuture<?>[] crawls = couponUrlSources.stream()
+                .map(source -> CompletableFuture.runAsync(() -> {
+                    long sourceStart = System.nanoTime();
+                    AtomicInteger discovered = new AtomicInteger();
+                    AtomicInteger accepted = new AtomicInteger();
+                    try {
+                        source.crawlCouponUrls(couponUrl -> {
+                            discovered.incrementAndGet();
+                            if (couponUrlFilter.acceptScrapedUrl(couponUrl)) {
+                                accepted.incrementAndGet();
+                                couponUrlQueue.add(couponUrl);
+                            }
+                        });
+                    } catch (Exception e) {
+                        log.warn("Coupon source {} failed: {}", source.getSourceName(), e.getMessage(), e);
+                    }
+                    log.info("Coupon source {} finished in {} ms: {} URLs discovered, {} queued for validation",
+                            source.getSourceName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sourceStart),
+                            discovered.get(), accepted.get());
+                }, sourcePool))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(crawls);
+    }
+
     /**
      * Delays the execution until the next round by calculating the time elapsed
      * since the start and the remaining time until the next interval.
@@ -156,112 +325,49 @@ public class CrawlerRunner implements ApplicationRunner {
     }
 
     /**
-     * Saves all coupon data by processing URLs in batches sequentially.
-     * Each batch processes URLs concurrently (using numberOfThread), but batches run one after another
-     * to avoid hitting rate limits (429 errors) from Udemy API.
-     * Each batch is saved immediately to the database for faster user visibility.
+     * Saves all coupon data by cutting the URL stream of a round into batches and processing them sequentially.
+     * A batch is dispatched once it holds {@code custom.batch-processing-size} URLs, or when no new URL has arrived
+     * for {@code custom.stream-batch-linger-ms}, so slow sources do not hold back URLs that are already known.
+     * Each batch processes URLs concurrently on the shared validator pool and is saved immediately to the
+     * database for faster user visibility. Udemy rate limits (429 errors) are handled per host by the
+     * adaptive limiter in {@code HttpFetchEngine}, which slows down on throttling and speeds up while healthy.
      *
-     * @param allCouponUrls List of URLs containing coupon data to be processed
-     * @param numberOfThread Number of threads to execute concurrently within each batch
+     * @param couponUrlQueue filtered URLs of the round, terminated by {@link #END_OF_STREAM}
+     * @param round          metrics of the current round, credited with the JDBC batches issued here
+     * @return number of URLs processed in the round
+     * @throws InterruptedException if interrupted while waiting for URLs
      */
-    private void saveAllCouponData(List<String> allCouponUrls, int numberOfThread) {
-        log.info("Processing {} URLs in batches of {}", allCouponUrls.size(), batchProcessingSize);
+    private int saveStreamedCouponData(BlockingQueue<String> couponUrlQueue, CrawlRoundMetrics.Round round)
+            throws InterruptedException {
+        log.info("Processing streamed URLs in batches of {}", batchProcessingSize);
         
         Set<String> allExpiredCouponUrls = new HashSet<>();
+        List<String> batch = new ArrayList<>(batchProcessingSize);
         int totalProcessed = 0;
+        boolean endOfStream = false;
         
-        while (totalProcessed < allCouponUrls.size()) {
-            List<String> batch = allCouponUrls.stream()
-                    .skip(totalProcessed)
-                    .limit(batchProcessingSize)
-                    .collect(Collectors.toList());
-            
-            log.info("Processing batch {}-{} of {}", totalProcessed + 1,
-                    Math.min(totalProcessed + batchProcessingSize, allCouponUrls.size()),
-                    allCouponUrls.size());
-            
-            BatchResult batchResult = processBatch(batch, numberOfThread);
-            
-            if (!batchResult.validCoupons.isEmpty()) {
-                couponCourseRepository.saveAll(batchResult.validCoupons);
-                
-                Set<String> validUrls = batchResult.validCoupons.stream()
-                    .map(CouponCourseData::getCouponUrl)
-                    .filter(url -> url != null)
-                    .collect(Collectors.toSet());
-                
-                for (String validUrl : validUrls) {
-                    ExpiredCourseData expiredEntry = expiredCouponRepository.findByCouponUrl(validUrl);
-                    if (expiredEntry != null) {
-                        expiredCouponRepository.delete(expiredEntry);
-                    }
-                }
-                
-                log.info("Saved {} valid coupons to database", batchResult.validCoupons.size());
-            }
-
-            if (!batchResult.expiredCoupons.isEmpty()) {
-                Set<String> existingExpiredUrls = new HashSet<>();
-                List<ExpiredCourseData> expiredToUpdate = new ArrayList<>();
-                List<ExpiredCourseData> expiredToCreate = new ArrayList<>();
-                
-                for (ExpiredCouponInfo expiredInfo : batchResult.expiredCoupons) {
-                    ExpiredCourseData existingExpired = expiredCouponRepository.findByCouponUrl(expiredInfo.couponUrl);
-                    if (existingExpired != null) {
-                        existingExpiredUrls.add(expiredInfo.couponUrl);
-                        boolean needsUpdate = false;
-                        if (existingExpired.getCourseId() == null && expiredInfo.courseId != null) {
-                            existingExpired.setCourseId(expiredInfo.courseId);
-                            needsUpdate = true;
-                        }
-                        if (existingExpired.getTitle() == null && expiredInfo.title != null) {
-                            existingExpired.setTitle(expiredInfo.title);
-                            needsUpdate = true;
-                        }
-                        if (needsUpdate) {
-                            expiredToUpdate.add(existingExpired);
-                        }
-                    } else {
-                        expiredToCreate.add(new ExpiredCourseData(
-                            expiredInfo.couponUrl, 
-                            expiredInfo.courseId, 
-                            expiredInfo.title
-                        ));
-                    }
-                }
-                
-                if (!existingExpiredUrls.isEmpty()) {
-                    expiredCouponRepository.updateUpdatedAtForUrls(existingExpiredUrls);
-                }
-                
-                if (!expiredToUpdate.isEmpty()) {
-                    expiredCouponRepository.saveAll(expiredToUpdate);
+        while (!endOfStream) {
+            String couponUrl = batch.isEmpty()
+                    ? couponUrlQueue.take()
+                    : couponUrlQueue.poll(streamBatchLingerMs, TimeUnit.MILLISECONDS);
+            if (couponUrl == END_OF_STREAM) {
+                endOfStream = true;
+            } else if (couponUrl != null) {
+                batch.add(couponUrl);
+                if (batch.size() < batchProcessingSize) {
+                    continue;
                 }
-                
-                if (!expiredToCreate.isEmpty()) {
-                    expiredCouponRepository.saveAll(expiredToCreate);
-                }
-                
-                Set<String> expiredUrls = batchResult.expiredCoupons.stream()
-                    .map(info -> info.couponUrl)
-                    .collect(Collectors.toSet());
-                allExpiredCouponUrls.addAll(expiredUrls);
-                
-                log.info("Saved/Updated {} expired coupons ({} new, {} updated)",
-                        batchResult.expiredCoupons.size(), expiredToCreate.size(), existingExpiredUrls.size());
-                LastFetchTimeManager.updateLastBulkRefreshCoupon();
-            }
-
-            if (!batchResult.failedToValidateCouponUrls.isEmpty()) {
-                log.warn("{} URLs failed to validate", batchResult.failedToValidateCouponUrls.size());
             }
-
-            if (!batchResult.historyEntries.isEmpty()) {
-                couponCourseHistoryRepository.saveAll(batchResult.historyEntries);
+            if (batch.isEmpty()) {
+                continue;
             }
             
+            log.info("Processing batch {}-{} ({} URLs waiting)", totalProcessed + 1,
+                    totalProcessed + batch.size(), couponUrlQueue.size());
+            saveCouponBatch(batch, round, allExpiredCouponUrls);
             totalProcessed += batch.size();
-            log.info("Progress: {}/{} URLs processed", totalProcessed, allCouponUrls.size());
+            batch = new ArrayList<>(batchProcessingSize);
+            log.info("Progress: {} URLs processed", totalProcessed);
         }
         
         if (!allExpiredCouponUrls.isEmpty()) {
@@ -271,161 +377,362 @@ public class CrawlerRunner implements ApplicationRunner {
         
         log.info("All batches finished. Total processed: {}", totalProcessed);
         LastFetchTimeManager.updateLastBulkRefreshCoupon();
+        return totalProcessed;
     }
 
     /**
-     * Processes a batch of coupon URLs concurrently and returns the results.
+     * Validates and persists one batch.
      *
-     * @param batch List of coupon URLs to process
-     * @param numberOfThread Number of threads to execute concurrently
-     * @return BatchResult containing valid coupons, expired URLs, and failed validations
+     * Persistence takes a constant number of statements: one batched upsert of valid coupons, one DELETE for
+     * reactivated coupons, one batched upsert for expired coupons and one batched insert for history rows.
+     *
+     * @param batch                URLs of the batch
+     * @param round                metrics of the current round, or null for scheduled refreshes outside a round
+     * @param allExpiredCouponUrls collects expired URLs of the round for the final cleanup
      */
-    private BatchResult processBatch(List<String> batch, int numberOfThread) {
-        Set<CouponCourseData> validCoupons = Collections.synchronizedSet(new HashSet<>());
-        Set<String> failedToValidateCouponUrls = Collections.synchronizedSet(new HashSet<>());
-        Set<ExpiredCouponInfo> expiredCoupons = Collections.synchronizedSet(new HashSet<>());
-        List<CouponCourseHistory> historyEntries = Collections.synchronizedList(new ArrayList<>());
+    private void saveCouponBatch(List<String> batch, CrawlRoundMetrics.Round round, Set<String> allExpiredCouponUrls) {
+        BatchResult batchResult = processBatch(batch);
         
-        Map<String, Integer> courseIdCache = new HashMap<>();
-        Map<String, CourseState> courseStateCache = new HashMap<>();
-        for (String couponUrl : batch) {
-            Integer courseId = couponCourseRepository.findCourseIdByCouponUrl(couponUrl);
-            if (courseId != null) {
-                courseIdCache.put(couponUrl, courseId);
-                courseStateCache.put(couponUrl, CourseState.ACTIVE);
-                continue;
+        if (!batchResult.validCoupons.isEmpty()) {
+            applyDepletionForecasts(batchResult.validCoupons);
+            // One batched upsert instead of a SELECT plus INSERT/UPDATE per coupon through JPA merge
+            couponCourseRepository.upsertAll(batchResult.validCoupons);
+            if (round != null) {
+                round.addRoundTrips(2);
+                round.couponsPersisted();
             }
-            courseId = expiredCouponRepository.findCourseIdByCouponUrl(couponUrl);
-            if (courseId != null) {
-                courseIdCache.put(couponUrl, courseId);
-                courseStateCache.put(couponUrl, CourseState.EXPIRED);
-            } else {
-                courseStateCache.put(couponUrl, CourseState.NEW);
+            
+            Set<String> validUrls = batchResult.validCoupons.stream()
+                .map(CouponCourseData::getCouponUrl)
+                .filter(url -> url != null)
+                .collect(Collectors.toSet());
+            
+            // Reactivated coupons leave the expired table in one statement
+            if (!validUrls.isEmpty()) {
+                expiredCouponRepository.deleteAllByCouponUrls(validUrls);
             }
+            
+            log.info("Saved {} valid coupons to database", batchResult.validCoupons.size());
+            // Cached list pages must not outlive the write
+            LastFetchTimeManager.bumpCouponListVersion();
         }
-        
-        ExecutorService executor = Executors.newFixedThreadPool(numberOfThread);
+
+        if (!batchResult.expiredCoupons.isEmpty()) {
+            List<ExpiredCourseData> expiredRows = batchResult.expiredCoupons.stream()
+                .map(info -> new ExpiredCourseData(info.couponUrl, info.courseId, info.title))
+                .collect(Collectors.toList());
+            // Inserts new rows and touches existing ones (keeping their courseId/title) in one batch
+            expiredCouponRepository.upsertAll(expiredRows);
+            if (round != null) {
+                round.addRoundTrips(1);
+            }
+            
+            Set<String> expiredUrls = batchResult.expiredCoupons.stream()
+                .map(info -> info.couponUrl)
+                .collect(Collectors.toSet());
+            allExpiredCouponUrls.addAll(expiredUrls);
+            
+            log.info("Saved/Updated {} expired coupons", expiredRows.size());
+            LastFetchTimeManager.updateLastBulkRefreshCoupon();
+        }
+
+        if (!batchResult.failedToValidateCouponUrls.isEmpty()) {
+            log.warn("{} URLs failed to validate", batchResult.failedToValidateCouponUrls.size());
+        }
+
+        if (!batchResult.historyEntries.isEmpty()) {
+            couponCourseHistoryRepository.insertAll(batchResult.historyEntries);
+            if (round != null) {
+                round.addRoundTrips(1);
+            }
+        }
+    }
+
+    /**
+     * Folds the uses remaining of each validated coupon into the depletion rate of its active row, loaded with one
+     * query for the batch, and forecasts when it runs out. New coupons (and new coupon codes) start without a rate.
+     *
+     * @param coupons validated coupons, updated in place
+     */
+    private void applyDepletionForecasts(Collection<CouponCourseData> coupons) {
+        Map<String, CouponCourseData> couponsByUrl = new HashMap<>();
+        for (CouponCourseData coupon : coupons) {
+            if (coupon.getCouponUrl() != null) {
+                couponsByUrl.put(coupon.getCouponUrl(), coupon);
+            }
+        }
+        Instant checkedAt = Instant.now();
+        for (CouponRefreshProjection previous : couponCourseRepository.findRefreshProjectionsByCouponUrlIn(couponsByUrl.keySet())) {
+            CouponCourseData coupon = couponsByUrl.get(previous.getCouponUrl());
+            if (coupon != null && previous.getUsesRemaining() != null) {
+                coupon.setUsesPerHour(UsesDepletionEstimator.updateRate(previous.getUsesPerHour(),
+                        previous.getUsesRemaining(), previous.checkedAt(), coupon.getUsesRemaining(), checkedAt));
+            }
+        }
+        for (CouponCourseData coupon : coupons) {
+            coupon.setDepletesAt(UsesDepletionEstimator.forecastDepletion(
+                    coupon.getUsesRemaining(), coupon.getUsesPerHour(), checkedAt));
+        }
+    }
+
+    /**
+     * Processes a batch of coupon URLs concurrently and returns the results.
+     * Depending on {@code custom.validation-mode}, URLs are validated either on the shared validator pool
+     * or through the non-blocking async pipeline. Either way the calling thread parks until the batch completes.
+     *
+     * @param batch List of coupon URLs to process
+     * @return BatchResult containing valid coupons, expired URLs, and failed validations
+     */
+    private BatchResult processBatch(List<String> batch) {
+        BatchResult result = new BatchResult();
+
+        Map<String, KnownCoupon> knownCoupons = resolveKnownCoupons(batch);
+        Set<String> unindexedUrls = resolveIndexedCourseIds(batch, knownCoupons);
+
+        BatchCompletionTracker.Batch trackedBatch = batchTracker.newBatch(batch.size());
+        if (VALIDATION_MODE_ASYNC.equalsIgnoreCase(validationMode)) {
+            processBatchAsync(batch, knownCoupons, result, trackedBatch);
+            trackedBatch.awaitCompletion();
+            indexResolvedCourseIds(unindexedUrls, result);
+            return result;
+        }
+
         for (String couponUrl : batch) {
-            executor.submit(() -> {
+            trackedBatch.submit(validatorPool, couponUrl, () -> {
                 try {
                     urlLog.info("START|url={}", couponUrl);
 
-                    Integer cachedCourseId = courseIdCache.get(couponUrl);
+                    Integer cachedCourseId = knownCourseId(knownCoupons, couponUrl);
                     UdemyCouponCourseExtractor extractor = (cachedCourseId != null)
                         ? new UdemyCouponCourseExtractor(couponUrl, cachedCourseId)
                         : new UdemyCouponCourseExtractor(couponUrl);
-                    
+
                     CouponCourseData couponCodeData = extractor.getFullCouponCodeData();
-                    if (couponCodeData != null) {
-                        CourseState state = courseStateCache.getOrDefault(couponUrl, CourseState.NEW);
-                        boolean isFirstTime = state == CourseState.NEW;
-                        couponCodeData.setNew(isFirstTime);
-                        validCoupons.add(couponCodeData);
-                        historyEntries.add(CouponCourseHistory.builder()
-                            .courseId(couponCodeData.getCourseId())
-                            .title(couponCodeData.getTitle())
-                            .couponUrl(couponUrl)
-                            .status(switch (state) {
-                                case NEW -> HISTORY_STATUS_NEW;
-                                case EXPIRED -> HISTORY_STATUS_REACTIVATED;
-                                case ACTIVE -> HISTORY_STATUS_REFRESHED;
-                            })
-                            .build());
-                        courseIdCache.put(couponUrl, couponCodeData.getCourseId());
-                        courseStateCache.put(couponUrl, CourseState.ACTIVE);
-                        log.debug("Validated coupon {}", couponCodeData.getTitle());
-                        urlLog.info(
-                            "OK|url={}|courseId={}|title={}",
-                            couponUrl,
-                            couponCodeData.getCourseId(),
-                            couponCodeData.getTitle()
-                        );
-                    } else {
-                        Integer courseId = resolveCourseIdForExpired(couponUrl, extractor, cachedCourseId);
-                        String title = null;
-                        CouponCourseData existing = couponCourseRepository.findByCouponUrl(couponUrl);
-                        if (existing != null) {
-                            title = existing.getTitle();
-                            if (courseId == null) {
-                                courseId = existing.getCourseId();
-                            }
-                        }
-                        if (title == null) {
-                            ExpiredCourseData expiredData = expiredCouponRepository.findByCouponUrl(couponUrl);
-                            if (expiredData != null) {
-                                title = expiredData.getTitle();
-                                if (courseId == null) {
-                                    courseId = expiredData.getCourseId();
-                                }
-                            }
-                        }
-                        
-                        expiredCoupons.add(new ExpiredCouponInfo(couponUrl, courseId, title));
-                        historyEntries.add(CouponCourseHistory.builder()
-                            .courseId(courseId)
-                            .title(title)
-                            .couponUrl(couponUrl)
-                            .status(HISTORY_STATUS_EXPIRED)
-                            .build());
-                        urlLog.info(
-                            "EXPIRED|url={}|courseId={}|title={}",
-                            couponUrl,
-                            courseId,
-                            title
-                        );
-                    }
+                    recordValidationResult(couponUrl, extractor, cachedCourseId, couponCodeData,
+                            knownCoupons, result);
                 } catch (Exception e) {
-                    failedToValidateCouponUrls.add(couponUrl + " " + e.getMessage());
-                    log.warn("Failed to validate coupon {}: {}", couponUrl, e.getMessage(), e);
-                    urlLog.info(
-                        "FAILED|url={}|error={}",
-                        couponUrl,
-                        e.getClass().getSimpleName() + ":" + String.valueOf(e.getMessage())
-                    );
+                    recordValidationFailure(couponUrl, e, result);
                 }
             });
         }
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-            // Wait until all threads are finished
+        trackedBatch.awaitCompletion();
+        indexResolvedCourseIds(unindexedUrls, result);
+        return result;
+    }
+
+    /**
+     * Validates a batch through the non-blocking pipeline: course-id resolution, then the coupon and
+     * course API calls concurrently, then combination. Concurrency is bounded by the number of URLs in
+     * flight ({@code custom.async-max-in-flight}) rather than by a thread count, and the calling thread
+     * blocks only to acquire a permit; completion is awaited through the batch tracker.
+     */
+    private void processBatchAsync(List<String> batch,
+                                   Map<String, KnownCoupon> knownCoupons,
+                                   BatchResult result,
+                                   BatchCompletionTracker.Batch trackedBatch) {
+        Semaphore inFlight = new Semaphore(asyncMaxInFlight);
+        int dispatched = 0;
+        try {
+            for (String couponUrl : batch) {
+                inFlight.acquire();
+                trackedBatch.track(couponUrl, () -> validateCouponAsync(couponUrl, knownCoupons, result))
+                        .whenComplete((ignored, error) -> inFlight.release());
+                dispatched++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while dispatching async validations; waiting for {} in-flight URLs", dispatched);
         }
-        
-        return new BatchResult(validCoupons, failedToValidateCouponUrls, expiredCoupons, historyEntries);
+    }
+
+    private CompletableFuture<Void> validateCouponAsync(String couponUrl,
+                                                        Map<String, KnownCoupon> knownCoupons,
+                                                        BatchResult result) {
+        urlLog.info("START|url={}", couponUrl);
+        Integer cachedCourseId = knownCourseId(knownCoupons, couponUrl);
+        CompletableFuture<UdemyCouponCourseExtractor> extractorFuture = (cachedCourseId != null)
+            ? CompletableFuture.completedFuture(new UdemyCouponCourseExtractor(couponUrl, cachedCourseId))
+            : UdemyCouponCourseExtractor.createAsync(couponUrl);
+
+        return extractorFuture
+            .thenCompose(extractor -> extractor.getFullCouponCodeDataAsync()
+                .thenAccept(couponCodeData -> recordValidationResult(couponUrl, extractor, cachedCourseId,
+                        couponCodeData, knownCoupons, result)))
+            .exceptionally(e -> {
+                recordValidationFailure(couponUrl, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e, result);
+                return null;
+            });
+    }
+
+    /**
+     * Records the outcome of validating one coupon URL: a valid coupon with its history entry,
+     * or an expired coupon enriched with any courseId/title we already know.
+     */
+    private void recordValidationResult(String couponUrl,
+                                        UdemyCouponCourseExtractor extractor,
+                                        Integer cachedCourseId,
+                                        CouponCourseData couponCodeData,
+                                        Map<String, KnownCoupon> knownCoupons,
+                                        BatchResult result) {
+        KnownCoupon known = knownCoupons.get(couponUrl);
+        if (couponCodeData != null) {
+            CourseState state = known != null ? known.state() : CourseState.NEW;
+            boolean isFirstTime = state == CourseState.NEW;
+            couponCodeData.setNew(isFirstTime);
+            result.validCoupons.add(couponCodeData);
+            result.historyEntries.add(CouponCourseHistory.builder()
+                .courseId(couponCodeData.getCourseId())
+                .title(couponCodeData.getTitle())
+                .couponUrl(couponUrl)
+                .status(switch (state) {
+                    case NEW -> HISTORY_STATUS_NEW;
+                    case EXPIRED -> HISTORY_STATUS_REACTIVATED;
+                    case ACTIVE -> HISTORY_STATUS_REFRESHED;
+                })
+                .build());
+            knownCoupons.put(couponUrl,
+                    new KnownCoupon(couponCodeData.getCourseId(), couponCodeData.getTitle(), CourseState.ACTIVE));
+            log.debug("Validated coupon {}", couponCodeData.getTitle());
+            urlLog.info(
+                "OK|url={}|courseId={}|title={}",
+                couponUrl,
+                couponCodeData.getCourseId(),
+                couponCodeData.getTitle()
+            );
+            return;
+        }
+
+        // courseId/title come from the batch pre-resolution; no per-URL queries on the expired path
+        Integer courseId = extractor.getCourseId() > 0 ? Integer.valueOf(extractor.getCourseId()) : cachedCourseId;
+        String title = known != null ? known.title() : null;
+
+        result.expiredCoupons.add(new ExpiredCouponInfo(couponUrl, courseId, title));
+        result.historyEntries.add(CouponCourseHistory.builder()
+            .courseId(courseId)
+            .title(title)
+            .couponUrl(couponUrl)
+            .status(HISTORY_STATUS_EXPIRED)
+            .build());
+        urlLog.info(
+            "EXPIRED|url={}|courseId={}|title={}",
+            couponUrl,
+            courseId,
+            title
+        );
+    }
+
+    private void recordValidationFailure(String couponUrl, Throwable e, BatchResult result) {
+        result.failedToValidateCouponUrls.add(couponUrl + " " + e.getMessage());
+        log.warn("Failed to validate coupon {}: {}", couponUrl, e.getMessage(), e);
+        urlLog.info(
+            "FAILED|url={}|error={}",
+            couponUrl,
+            e.getClass().getSimpleName() + ":" + String.valueOf(e.getMessage())
+        );
     }
 
     /**
      * Helper class to hold batch processing results.
+     * Collections are synchronized because they are filled concurrently by validation tasks.
      */
     private static class BatchResult {
-        final Set<CouponCourseData> validCoupons;
-        final Set<String> failedToValidateCouponUrls;
-        final Set<ExpiredCouponInfo> expiredCoupons;
-        final List<CouponCourseHistory> historyEntries;
-
-        BatchResult(Set<CouponCourseData> validCoupons,
-                    Set<String> failedToValidateCouponUrls,
-                    Set<ExpiredCouponInfo> expiredCoupons,
-                    List<CouponCourseHistory> historyEntries) {
-            this.validCoupons = validCoupons;
-            this.failedToValidateCouponUrls = failedToValidateCouponUrls;
-            this.expiredCoupons = expiredCoupons;
-            this.historyEntries = historyEntries;
+        final Set<CouponCourseData> validCoupons = Collections.synchronizedSet(new HashSet<>());
+        final Set<String> failedToValidateCouponUrls = Collections.synchronizedSet(new HashSet<>());
+        final Set<ExpiredCouponInfo> expiredCoupons = Collections.synchronizedSet(new HashSet<>());
+        final List<CouponCourseHistory> historyEntries = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    /**
+     * Resolves courseId, title and state for a whole batch with one projection query per table,
+     * instead of up to two courseId lookups per URL plus two entity loads on the expired path.
+     * Active rows take precedence over expired rows; a missing value falls back to the expired row.
+     *
+     * @param couponUrls URLs of the batch
+     * @return known coupons by URL; URLs absent from both tables are not included
+     */
+    private Map<String, KnownCoupon> resolveKnownCoupons(Collection<String> couponUrls) {
+        Map<String, KnownCoupon> knownCoupons = new ConcurrentHashMap<>();
+        if (couponUrls.isEmpty()) {
+            return knownCoupons;
         }
+        for (CouponUrlProjection expired : expiredCouponRepository.findProjectionsByCouponUrlIn(couponUrls)) {
+            // Without a courseId an expired row is treated like a new URL, as before
+            CourseState state = expired.getCourseId() != null ? CourseState.EXPIRED : CourseState.NEW;
+            knownCoupons.put(expired.getCouponUrl(), new KnownCoupon(expired.getCourseId(), expired.getTitle(), state));
+        }
+        for (CouponUrlProjection active : couponCourseRepository.findProjectionsByCouponUrlIn(couponUrls)) {
+            KnownCoupon expired = knownCoupons.get(active.getCouponUrl());
+            Integer courseId = active.getCourseId() != null || expired == null ? active.getCourseId() : expired.courseId();
+            String title = active.getTitle() != null || expired == null ? active.getTitle() : expired.title();
+            CourseState state = courseId != null ? CourseState.ACTIVE : CourseState.NEW;
+            knownCoupons.put(active.getCouponUrl(), new KnownCoupon(courseId, title, state));
+        }
+        return knownCoupons;
     }
 
-    private Integer resolveCourseIdForExpired(String couponUrl, UdemyCouponCourseExtractor extractor, Integer cachedCourseId) {
-        int extractedCourseId = extractor.getCourseId();
-        if (extractedCourseId > 0) {
-            return extractedCourseId;
+    /**
+     * Fills in the courseId of batch URLs the coupon tables do not know from the course slug index, with one
+     * query for the whole batch, so a new coupon code for a known course skips the coupon page fetch.
+     * The state of those URLs stays {@link CourseState#NEW}.
+     *
+     * @param couponUrls   URLs of the batch
+     * @param knownCoupons known coupons by URL, updated in place
+     * @return URLs whose courseId is still unknown and has to be resolved from the coupon page
+     */
+    private Set<String> resolveIndexedCourseIds(Collection<String> couponUrls, Map<String, KnownCoupon> knownCoupons) {
+        Set<String> unresolved = new HashSet<>();
+        for (String couponUrl : couponUrls) {
+            if (knownCourseId(knownCoupons, couponUrl) == null) {
+                unresolved.add(couponUrl);
+            }
         }
-        if (cachedCourseId != null) {
-            return cachedCourseId;
+        if (unresolved.isEmpty()) {
+            return unresolved;
         }
-        Integer courseId = couponCourseRepository.findCourseIdByCouponUrl(couponUrl);
-        if (courseId != null) {
-            return courseId;
+        courseSlugIndex.findCourseIds(unresolved).forEach((couponUrl, courseId) -> {
+            KnownCoupon known = knownCoupons.get(couponUrl);
+            knownCoupons.put(couponUrl, known != null
+                    ? new KnownCoupon(courseId, known.title(), known.state())
+                    : new KnownCoupon(courseId, null, CourseState.NEW));
+            unresolved.remove(couponUrl);
+        });
+        return unresolved;
+    }
+
+    /**
+     * Stores the courseIds resolved from coupon pages during the batch in the course slug index.
+     */
+    private void indexResolvedCourseIds(Set<String> unindexedUrls, BatchResult result) {
+        if (unindexedUrls.isEmpty()) {
+            return;
         }
-        return expiredCouponRepository.findCourseIdByCouponUrl(couponUrl);
+        Map<String, Integer> resolved = new HashMap<>();
+        synchronized (result.validCoupons) {
+            for (CouponCourseData coupon : result.validCoupons) {
+                if (unindexedUrls.contains(coupon.getCouponUrl())) {
+                    resolved.put(coupon.getCouponUrl(), coupon.getCourseId());
+                }
+            }
+        }
+        synchronized (result.expiredCoupons) {
+            for (ExpiredCouponInfo expired : result.expiredCoupons) {
+                if (expired.courseId != null && unindexedUrls.contains(expired.couponUrl)) {
+                    resolved.put(expired.couponUrl, expired.courseId);
+                }
+            }
+        }
+        courseSlugIndex.recordAll(resolved);
+    }
+
+    private static Integer knownCourseId(Map<String, KnownCoupon> knownCoupons, String couponUrl) {
+        KnownCoupon known = knownCoupons.get(couponUrl);
+        return known != null ? known.courseId() : null;
+    }
+
+    /**
+     * What the database already knows about a coupon URL at the start of its batch.
+     */
+    private record KnownCoupon(Integer courseId, String title, CourseState state) {
     }
 
     private enum CourseState {
@@ -462,48 +769,45 @@ public class CrawlerRunner implements ApplicationRunner {
     }
 
     /**
-     * Filters coupon URLs using smart pre-validation
+     * Filters coupon URLs of one round using smart pre-validation, one URL at a time as it is streamed in:
+     * - For refresh URLs: always validate, they are coupons in the DB that are close to expiring or stale
      * - For newly scraped URLs: Skip only if recently checked as expired (within X hours)
      *   Otherwise validate even if expired before (might have new coupons)
-     * - For refresh URLs: Skip if already in DB (and still valid), or if expired
-     * - Allows coupons needing refresh to pass through even if they exist in DB
+     * - Every URL is validated at most once per round, whichever source reports it first
      * 
-     * This reduces API calls while ensuring we don't miss reactivated coupons.
-     *
-     * @param newCouponUrls the list of new coupon URLs (scraped + refresh URLs)
-     * @param couponsNeedingRefresh set of coupon URLs that need to be refreshed (should not be filtered out)
-     * @param newlyScrapedUrls set of URLs that were newly scraped from crawlers
-     * @return a list of coupon URLs that need to be fetched and validated
+     * This reduces API calls while ensuring we don't miss reactivated coupons. Thread-safe, since every
+     * source emits from its own threads.
      */
-    private List<String> filterValidCouponUrls(List<String> newCouponUrls, Set<String> couponsNeedingRefresh, Set<String> newlyScrapedUrls) {
-        if (newCouponUrls == null || newCouponUrls.isEmpty()) {
-            return new ArrayList<>();
+    private static final class CouponUrlFilter {
+        private final Set<String> couponsNeedingRefresh;
+        private final Set<String> recentlyCheckedExpiredUrls;
+        private final Set<String> seenUrls = ConcurrentHashMap.newKeySet();
+
+        /**
+         * @param couponsNeedingRefresh      set of coupon URLs that need to be refreshed (never filtered out)
+         * @param recentlyCheckedExpiredUrls URLs found expired within {@code custom.skip-recently-checked-expired-hours}
+         */
+        CouponUrlFilter(Set<String> couponsNeedingRefresh, Set<String> recentlyCheckedExpiredUrls) {
+            this.couponsNeedingRefresh = couponsNeedingRefresh;
+            this.recentlyCheckedExpiredUrls = recentlyCheckedExpiredUrls;
         }
 
-        Set<String> existingCouponUrls = couponCourseRepository.findAllCouponUrls();
-        
-        LocalDateTime recentlyCheckedThreshold = LocalDateTime.now().minusHours(skipRecentlyCheckedExpiredHours);
-        Set<String> recentlyCheckedExpiredUrls = expiredCouponRepository.findRecentlyCheckedExpiredUrls(recentlyCheckedThreshold);
-        
-        return newCouponUrls.stream()
-                .filter(couponUrl -> couponUrl != null && !couponUrl.trim().isEmpty())
-                .filter(couponUrl -> {
-                    if (couponsNeedingRefresh != null && couponsNeedingRefresh.contains(couponUrl)) {
-                        return true;
-                    }
-                    
-                    if (newlyScrapedUrls != null && newlyScrapedUrls.contains(couponUrl)) {
-                        if (recentlyCheckedExpiredUrls.contains(couponUrl)) {
-                            return false;
-                        }
-                        return true;
-                    }
-                    
-                    if (existingCouponUrls.contains(couponUrl)) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+        boolean acceptRefreshUrl(String couponUrl) {
+            return isPresent(couponUrl) && seenUrls.add(couponUrl);
+        }
+
+        boolean acceptScrapedUrl(String couponUrl) {
+            if (!isPresent(couponUrl)) {
+                return false;
+            }
+            if (!couponsNeedingRefresh.contains(couponUrl) && recentlyCheckedExpiredUrls.contains(couponUrl)) {
+                return false;
+            }
+            return seenUrls.add(couponUrl);
+        }
+
+        private static boolean isPresent(String couponUrl) {
+            return couponUrl != null && !couponUrl.trim().isEmpty();
+        }
     }
 }
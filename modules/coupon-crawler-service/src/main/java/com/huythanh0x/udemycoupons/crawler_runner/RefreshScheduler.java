@@ -0,0 +1,286 @@
+package com.huythanh0x.udemycoupons.crawler_runner;
+
+import com.huythanh0x.udemycoupons.repository.CouponCourseRepository;
+import com.huythanh0x.udemycoupons.repository.CouponRefreshProjection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Continuous refresh of active coupons ({@code custom.refresh-mode=scheduled}), replacing the
+ * {@code findCouponUrlsNeedingRefresh} sweep at the start of every round.
+ * <p>
+ * Every active coupon sits in a {@link DelayQueue} keyed on its next due time, derived from the same signals the
+ * sweep used, but as a time instead of a yes/no:
+ * <ul>
+ *   <li>staleness: due {@code custom.refresh-old-hours} after the last check, or {@code custom.refresh-forecast-max-hours}
+ *   once its depletion rate is known;</li>
+ *   <li>end: a coupon ends at its expiry or at its forecast depletion ({@code depletes_at}), whichever comes first;
+ *   it is due when it enters the last {@code custom.refresh-expiring-hours} before its end, then at half the
+ *   remaining time, so checks get denser towards the end;</li>
+ *   <li>uses: due immediately below {@code custom.refresh-min-uses-remaining}.</li>
+ * </ul>
+ * Checks are never closer than {@code custom.refresh-min-interval-minutes}. A single thread takes due coupons in
+ * due order, validates up to one batch at a time and reschedules them from their new state, so upstream load is
+ * spread over time instead of arriving as one spike per round. Coupons that are already overdue when loaded (e.g. at
+ * startup) are spread over one round interval. Exported as {@code crawler.refresh.scheduled},
+ * {@code crawler.refresh.dispatched} and {@code crawler.refresh.lag} (dispatch time minus due time).
+ */
+public class RefreshScheduler {
+    private static final Logger log = LoggerFactory.getLogger(RefreshScheduler.class);
+
+    /**
+     * Validates a batch of coupon URLs and persists the outcome.
+     */
+    @FunctionalInterface
+    interface BatchValidator {
+        void validate(List<String> couponUrls);
+    }
+
+    /**
+     * @param staleAfter         maximum time between two checks
+     * @param forecastStaleAfter maximum time between two checks of a coupon whose depletion rate is known
+     * @param expiringWindow     window before expiry or depletion in which checks get denser
+     * @param minUsesRemaining   uses remaining below which a coupon is checked as often as allowed
+     * @param minInterval        minimum time between two checks of the same coupon
+     * @param spread             window over which overdue coupons are spread when loaded
+     * @param batchSize          maximum coupons validated together
+     */
+    record Settings(Duration staleAfter, Duration forecastStaleAfter, Duration expiringWindow, int minUsesRemaining,
+                    Duration minInterval, Duration spread, int batchSize) {
+    }
+
+    private final CouponCourseRepository couponCourseRepository;
+    private final BatchValidator validator;
+    private final Settings settings;
+    private final DelayQueue<DueCoupon> queue = new DelayQueue<>();
+    // Current entry per URL; queue elements that are no longer the current entry are skipped when they come due
+    private final ConcurrentMap<String, DueCoupon> scheduled = new ConcurrentHashMap<>();
+    private final Counter dispatched;
+    private final Timer lag;
+    private ExecutorService loop;
+
+    RefreshScheduler(CouponCourseRepository couponCourseRepository, BatchValidator validator, Settings settings,
+                     MeterRegistry meterRegistry) {
+        this.couponCourseRepository = couponCourseRepository;
+        this.validator = validator;
+        this.settings = settings;
+        Gauge.builder("crawler.refresh.scheduled", scheduled, ConcurrentMap::size)
+                .description("Active coupons waiting in the refresh schedule")
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("crawler.refresh.dispatched")
+                .description("Coupons taken from the refresh schedule for validation")
+                .register(meterRegistry);
+        this.lag = Timer.builder("crawler.refresh.lag")
+                .description("Delay between a coupon's refresh due time and its dispatch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every active coupon and starts the dispatch thread.
+     */
+    synchronized void start() {
+        if (loop != null) {
+            return;
+        }
+        reload();
+        loop = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "coupon-refresh-scheduler"));
+        loop.execute(this::runLoop);
+    }
+
+    synchronized void stop() {
+        if (loop != null) {
+            loop.shutdownNow();
+            loop = null;
+        }
+    }
+
+    /**
+     * Synchronizes the schedule with the active coupon table: adds new coupons, reschedules coupons whose state
+     * changed since they were scheduled (e.g. validated by a crawl round) and drops deleted ones.
+     */
+    void reload() {
+        List<CouponRefreshProjection> coupons = couponCourseRepository.findRefreshProjections();
+        Set<String> activeUrls = new HashSet<>();
+        Instant now = Instant.now();
+        int added = 0;
+        for (CouponRefreshProjection coupon : coupons) {
+            activeUrls.add(coupon.getCouponUrl());
+            if (schedule(coupon, scheduled.get(coupon.getCouponUrl()), now, false)) {
+                added++;
+            }
+        }
+        scheduled.keySet().retainAll(activeUrls);
+        log.info("Refresh schedule reloaded: {} active coupons, {} (re)scheduled", scheduled.size(), added);
+    }
+
+    private void runLoop() {
+        List<DueCoupon> due = new ArrayList<>(settings.batchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                due.add(queue.take());
+                queue.drainTo(due, settings.batchSize() - 1);
+                Map<String, DueCoupon> batch = new HashMap<>();
+                long now = System.currentTimeMillis();
+                for (DueCoupon coupon : due) {
+                    // Unscheduled while in flight, so a failed reschedule is repaired by the next reload
+                    if (scheduled.remove(coupon.couponUrl, coupon)) {
+                        batch.put(coupon.couponUrl, coupon);
+                        lag.record(Math.max(0, now - coupon.dueAtMillis), TimeUnit.MILLISECONDS);
+                    }
+                }
+                due.clear();
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                dispatched.increment(batch.size());
+                List<String> couponUrls = new ArrayList<>(batch.keySet());
+                try {
+                    validator.validate(couponUrls);
+                } catch (RuntimeException e) {
+                    log.warn("Scheduled refresh of {} coupons failed: {}", couponUrls.size(), e.getMessage(), e);
+                }
+                reschedule(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Refresh scheduler iteration failed: {}", e.getMessage(), e);
+            }
+        }
+        log.info("Refresh scheduler stopped");
+    }
+
+    /**
+     * Reschedules dispatched coupons from their new state. Coupons no longer active (expired and removed) are
+     * not found and stay unscheduled.
+     *
+     * @param batch dispatched entries by coupon URL
+     */
+    private void reschedule(Map<String, DueCoupon> batch) {
+        Instant now = Instant.now();
+        for (CouponRefreshProjection coupon : couponCourseRepository.findRefreshProjectionsByCouponUrlIn(batch.keySet())) {
+            schedule(coupon, batch.get(coupon.getCouponUrl()), now, true);
+        }
+    }
+
+    /**
+     * Schedules a coupon from its current state unless it is already scheduled from that same state.
+     *
+     * @param previous      the coupon's current entry, null if not scheduled
+     * @param afterDispatch true when the coupon was just dispatched; it is then never due before the minimum interval,
+     *                      even if its check failed and its state is unchanged
+     * @return true if the coupon was (re)scheduled
+     */
+    private boolean schedule(CouponRefreshProjection coupon, DueCoupon previous, Instant now, boolean afterDispatch) {
+        String couponUrl = coupon.getCouponUrl();
+        if (couponUrl == null) {
+            return false;
+        }
+        Instant checkedAt = coupon.checkedAt();
+        int usesRemaining = coupon.getUsesRemaining() != null ? coupon.getUsesRemaining() : 0;
+        if (!afterDispatch && previous != null && previous.checkedAt.equals(checkedAt)) {
+            return false;
+        }
+
+        Instant dueAt = nextDueAt(checkedAt, coupon.getExpiredDate(), coupon.getDepletesAt(), usesRemaining,
+                coupon.getUsesPerHour() != null, settings);
+        if (afterDispatch) {
+            dueAt = max(dueAt, now.plus(settings.minInterval()));
+        } else if (dueAt.isBefore(now)) {
+            dueAt = now.plusMillis(overdueJitterMillis(coupon.getExpiredDate(), now));
+        }
+
+        DueCoupon entry = new DueCoupon(couponUrl, dueAt.toEpochMilli(), checkedAt);
+        scheduled.put(couponUrl, entry);
+        queue.put(entry);
+        return true;
+    }
+
+    /**
+     * Computes when a coupon should be checked next; see the class documentation for the rules.
+     *
+     * @param checkedAt     time of the last check
+     * @param expiresAt     coupon expiry, may be null
+     * @param depletesAt    forecast depletion of {@code usesRemaining}, may be null
+     * @param usesRemaining uses remaining at the last check
+     * @param rateKnown     whether the depletion rate has been estimated, so a missing forecast means no consumption
+     * @return the next due time, never earlier than {@code checkedAt + minInterval}
+     */
+    static Instant nextDueAt(Instant checkedAt, Instant expiresAt, Instant depletesAt, int usesRemaining,
+                             boolean rateKnown, Settings settings) {
+        Instant dueAt = checkedAt.plus(rateKnown ? settings.forecastStaleAfter() : settings.staleAfter());
+        Instant endsAt = expiresAt == null ? depletesAt : depletesAt == null ? expiresAt : min(expiresAt, depletesAt);
+        if (endsAt != null) {
+            Instant windowStart = endsAt.minus(settings.expiringWindow());
+            dueAt = min(dueAt, windowStart.isAfter(checkedAt)
+                    ? windowStart
+                    : checkedAt.plus(Duration.between(checkedAt, max(endsAt, checkedAt)).dividedBy(2)));
+        }
+        if (usesRemaining < settings.minUsesRemaining()) {
+            dueAt = checkedAt;
+        }
+        return max(dueAt, checkedAt.plus(settings.minInterval()));
+    }
+
+    /**
+     * Random delay for an overdue coupon within the spread window, shortened for coupons about to expire so they
+     * still come first.
+     */
+    private long overdueJitterMillis(Instant expiresAt, Instant now) {
+        long bound = settings.spread().toMillis();
+        if (expiresAt != null) {
+            bound = Math.min(bound, Math.max(0, Duration.between(now, expiresAt).toMillis() / 2));
+        }
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static final class DueCoupon implements Delayed {
+        final String couponUrl;
+        final long dueAtMillis;
+        final Instant checkedAt;
+
+        DueCoupon(String couponUrl, long dueAtMillis, Instant checkedAt) {
+            this.couponUrl = couponUrl;
+            this.dueAtMillis = dueAtMillis;
+            this.checkedAt = checkedAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((DueCoupon) other).dueAtMillis);
+        }
+    }
+}
@@ -2,9 +2,17 @@
 package com.huythanh0x.udemycoupons.crawler_runner.crawler;
 
 import com.huythanh0x.udemycoupons.crawler_runner.base.CouponUrlCrawlerBase;
+import com.huythanh0x.udemycoupons.crawler_runner.base.CrawlerStage;
+import com.huythanh0x.udemycoupons.crawler_runner.base.ScrapedUrlIndex;
 import com.huythanh0x.udemycoupons.crawler_runner.fetcher.WebContentFetcher;
 import com.huythanh0x.udemycoupons.model.coupon.ScrapedUrlMapping;
 import com.huythanh0x.udemycoupons.repository.ScrapedUrlMappingRepository;
+import com.huythanh0x.udemycoupons.service.RedisService;
+import com.huythanh0x.udemycoupons.utils.Constant;
+import com.huythanh0x.udemycoupons.utils.ExecutorFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -16,9 +24,12 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Component class for crawling coupon URLs from the Enext site which now renders server-side HTML.
@@ -30,32 +41,147 @@ public class EnextCrawler extends CouponUrlCrawlerBase {
     private static final String LIST_PAGE_FORMAT = "https://jobs.e-next.in/course/udemy/%d";
     private static final String SITE_BASE = "https://jobs.e-next.in";
     private static final Integer COUPON_PER_PAGE = 12;
+    // Detail URLs queued per consumer before list page producers block; one list page spans a few slots
+    private static final int DETAIL_QUEUE_SLOTS_PER_CONSUMER = 4;
 
     private final int maxCouponRequest;
     private final int numberOfThreads;
     private final ScrapedUrlMappingRepository scrapedUrlMappingRepository;
+    private final ExecutorFactory executorFactory;
+    private final Counter mappingIndexHits;
+    private final Counter mappingIndexMisses;
+    private final AtomicLong mappingIndexBytes = new AtomicLong();
+    private final AtomicLong mappingIndexEntries = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final CrawlerStage.Metrics detailStageMetrics;
+    private final boolean incrementalCrawl;
+    private final long fullSweepHours;
     private static final String CRAWLER_SOURCE = "enext";
+    private static final String FULL_SWEEP_KEY = Constant.REDIS_KEY_FULL_SWEEP_PREFIX + CRAWLER_SOURCE;
 
     EnextCrawler(
             @Value("${custom.number-of-enext-coupon}") int maxCouponRequest,
             @Value("${custom.number-of-request-thread}") int numberOfThreads,
-            ScrapedUrlMappingRepository scrapedUrlMappingRepository) {
+            ScrapedUrlMappingRepository scrapedUrlMappingRepository,
+            ExecutorFactory executorFactory,
+            MeterRegistry meterRegistry,
+            @Value("${custom.enext-incremental-crawl:true}") boolean incrementalCrawl,
+            @Value("${custom.enext-full-sweep-hours:24}") long fullSweepHours) {
         this.maxCouponRequest = maxCouponRequest;
         this.numberOfThreads = numberOfThreads;
         this.scrapedUrlMappingRepository = scrapedUrlMappingRepository;
+        this.executorFactory = executorFactory;
+        this.meterRegistry = meterRegistry;
+        this.detailStageMetrics = new CrawlerStage.Metrics(meterRegistry, "enext-detail");
+        this.incrementalCrawl = incrementalCrawl;
+        this.fullSweepHours = fullSweepHours;
+        this.mappingIndexHits = Counter.builder("crawler.scraped.url.index.lookups")
+                .description("Detail URL lookups in the preloaded scraped URL mapping index")
+                .tag("source", CRAWLER_SOURCE)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.mappingIndexMisses = Counter.builder("crawler.scraped.url.index.lookups")
+                .description("Detail URL lookups in the preloaded scraped URL mapping index")
+                .tag("source", CRAWLER_SOURCE)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("crawler.scraped.url.index.bytes", mappingIndexBytes, AtomicLong::get)
+                .description("Estimated heap used by the scraped URL mapping index of the current round")
+                .tag("source", CRAWLER_SOURCE)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("crawler.scraped.url.index.entries", mappingIndexEntries, AtomicLong::get)
+                .description("Mappings loaded into the scraped URL mapping index of the current round")
+                .tag("source", CRAWLER_SOURCE)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Scraped URL mappings of one round: the index preloaded from the database, the mappings discovered
+     * during the round (written back in one batch at its end) and the lookup counts. Only mappings whose coupon
+     * URL was emitted are recorded: incremental rounds skip known detail URLs, so a mapping dropped at the quota
+     * would otherwise never be emitted until the next full sweep.
+     */
+    private static final class RoundMappings {
+        final ScrapedUrlIndex index;
+        final Map<String, String> discovered = new ConcurrentHashMap<>();
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicInteger misses = new AtomicInteger();
+
+        RoundMappings(ScrapedUrlIndex index) {
+            this.index = index;
+        }
+
+        boolean isKnown(String scrapedUrl) {
+            return index.get(scrapedUrl) != null || discovered.containsKey(scrapedUrl);
+        }
+
+        /**
+         * Records the mapping of a detail URL whose coupon URL was just emitted, unless it was already known.
+         */
+        void emitted(String scrapedUrl, String couponUrl) {
+            if (!scrapedUrl.equals(couponUrl) && index.get(scrapedUrl) == null) {
+                discovered.putIfAbsent(scrapedUrl, couponUrl);
+            }
+        }
+    }
+
+    /**
+     * Loads every Enext mapping into a fresh index with one streaming query, replacing a
+     * {@code findByScrapedUrl} call per detail URL.
+     */
+    private RoundMappings loadRoundMappings() {
+        long start = System.nanoTime();
+        ScrapedUrlIndex index = new ScrapedUrlIndex(maxCouponRequest * 4);
+        try {
+            scrapedUrlMappingRepository.forEachMappingOfSource(CRAWLER_SOURCE, index::put);
+        } catch (Exception e) {
+            log.warn("Failed to preload scraped URL mappings, every detail page will be fetched: {}", e.getMessage());
+        }
+        mappingIndexBytes.set(index.estimatedBytes());
+        mappingIndexEntries.set(index.size());
+        log.info("Loaded {} Enext URL mappings in {} ms (~{} KiB)", index.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), index.estimatedBytes() / 1024);
+        return new RoundMappings(index);
+    }
+
+    /**
+     * Writes the mappings discovered during the round back in one batch and logs the index hit rate.
+     */
+    private void flushRoundMappings(RoundMappings mappings) {
+        int lookups = mappings.hits.get() + mappings.misses.get();
+        log.info("Enext URL mapping index: {} hits, {} misses ({}% hit rate), {} new mappings",
+                mappings.hits.get(), mappings.misses.get(),
+                lookups == 0 ? 0 : Math.round(mappings.hits.get() * 100.0 / lookups), mappings.discovered.size());
+        if (mappings.discovered.isEmpty()) {
+            return;
+        }
+        List<ScrapedUrlMapping> newMappings = new ArrayList<>(mappings.discovered.size());
+        mappings.discovered.forEach((scrapedUrl, couponUrl) -> newMappings.add(ScrapedUrlMapping.builder()
+                .scrapedUrl(scrapedUrl)
+                .couponUrl(couponUrl)
+                .crawlerSource(CRAWLER_SOURCE)
+                .build()));
+        try {
+            scrapedUrlMappingRepository.upsertAll(newMappings);
+        } catch (Exception e) {
+            log.warn("Failed to save {} new Enext URL mappings: {}", newMappings.size(), e.getMessage());
+        }
     }
 
     /**
      * Maps a scraped Enext detail page URL to its corresponding Udemy coupon URL.
-     * First checks the mapping repository cache to avoid unnecessary API calls.
-     * If not found in cache, fetches the detail page and extracts the coupon URL.
+     * First checks the mappings preloaded for this round to avoid unnecessary requests.
+     * If not found, fetches the detail page and extracts the coupon URL; it is remembered for the write-back once
+     * emitted ({@link RoundMappings#emitted}).
      * 
      * This is an internal method used only within EnextCrawler.
      *
      * @param scrapedUrl The Enext detail page URL
+     * @param mappings   mappings of the current round
      * @return The Udemy coupon URL, or null if extraction fails
      */
-    private String mapScrapedUrlToCouponUrl(String scrapedUrl) {
+    private String mapScrapedUrlToCouponUrl(String scrapedUrl, RoundMappings mappings) {
         if (scrapedUrl == null || scrapedUrl.trim().isEmpty()) {
             return null;
         }
@@ -64,10 +190,17 @@ public class EnextCrawler extends CouponUrlCrawlerBase {
             return scrapedUrl;
         }
         
-        ScrapedUrlMapping existingMapping = scrapedUrlMappingRepository.findByScrapedUrl(scrapedUrl);
-        if (existingMapping != null) {
-            return existingMapping.getCouponUrl();
+        String knownCouponUrl = mappings.index.get(scrapedUrl);
+        if (knownCouponUrl == null) {
+            knownCouponUrl = mappings.discovered.get(scrapedUrl);
         }
+        if (knownCouponUrl != null) {
+            mappings.hits.incrementAndGet();
+            mappingIndexHits.increment();
+            return knownCouponUrl;
+        }
+        mappings.misses.incrementAndGet();
+        mappingIndexMisses.increment();
         
         return extractCouponUrlFromDetailPage(scrapedUrl);
     }
@@ -88,12 +221,6 @@ public class EnextCrawler extends CouponUrlCrawlerBase {
             if (couponAnchor != null) {
                 String udemyUrl = couponAnchor.attr("href").trim();
                 if (!udemyUrl.isEmpty()) {
-                    ScrapedUrlMapping mapping = ScrapedUrlMapping.builder()
-                        .scrapedUrl(scrapedUrl)
-                        .couponUrl(udemyUrl)
-                        .crawlerSource(CRAWLER_SOURCE)
-                        .build();
-                    scrapedUrlMappingRepository.save(mapping);
                     return udemyUrl;
                 }
             }
@@ -104,177 +231,231 @@ public class EnextCrawler extends CouponUrlCrawlerBase {
     }
     
     /**
-     * Retrieves all coupon URLs using a producer-consumer pattern:
-     * - Producers: Fetch list pages concurrently and extract detail URLs
-     * - Consumers: Fetch detail pages concurrently as soon as URLs are available
-     * This minimizes waiting time by starting detail fetching immediately when URLs become available.
+     * Retrieves all coupon URLs by collecting everything {@link #crawlCouponUrls(Consumer)} emits.
      *
      * @return a list of Udemy coupon URLs
      */
     @Override
     public List<String> getAllCouponUrls() {
+        List<String> allUrls = Collections.synchronizedList(new ArrayList<>());
+        crawlCouponUrls(allUrls::add);
+        return new ArrayList<>(allUrls);
+    }
+
+    @Override
+    public String getSourceName() {
+        return CRAWLER_SOURCE;
+    }
+
+    /**
+     * Streams coupon URLs using a producer-consumer pattern:
+     * - Producers: Fetch list pages and extract detail URLs. A full sweep fetches all pages concurrently; an
+     *   incremental crawl walks pages in order, queues only unknown detail URLs and stops at the first page
+     *   whose detail URLs are all known (see {@link #isFullSweepDue})
+     * - Consumers: a bounded {@link CrawlerStage} that fetches detail pages concurrently and emits each Udemy URL
+     *   to the sink as soon as it is mapped
+     * This minimizes waiting time by starting detail fetching immediately when URLs become available. Consumers block
+     * on the queue and exit on completion signalling, and the stage stops the moment the quota is reached.
+     * At most {@code custom.number-of-enext-coupon} URLs are emitted.
+     * Known detail URLs are resolved from mappings preloaded at the start of the round, and new mappings are
+     * written back in one batch at its end.
+     *
+     * @param sink receives each Udemy coupon URL, called from the detail consumer threads
+     */
+    @Override
+    public void crawlCouponUrls(Consumer<String> sink) {
         int estimatedPages = (int) Math.ceil((double) maxCouponRequest / COUPON_PER_PAGE) + 2;
         
-        List<String> allUrls = Collections.synchronizedList(new ArrayList<>());
-        BlockingQueue<String> detailUrlQueue = new LinkedBlockingQueue<>();
+        Object emitLock = new Object();
+        RoundMappings mappings = loadRoundMappings();
+        boolean fullSweep = isFullSweepDue(mappings);
+        AtomicInteger listPagesFetched = new AtomicInteger(0);
         AtomicInteger collectedCount = new AtomicInteger(0);
-        AtomicInteger listPagesProcessed = new AtomicInteger(0);
-        AtomicBoolean allListPagesDone = new AtomicBoolean(false);
-        AtomicBoolean enoughCouponsCollected = new AtomicBoolean(false);
         
         // Thread pools: one for list pages (producers), one for detail pages (consumers)
-        ExecutorService listPageExecutor = Executors.newFixedThreadPool(Math.min(numberOfThreads, estimatedPages));
-        ExecutorService detailPageExecutor = Executors.newFixedThreadPool(numberOfThreads);
-        
-        int detailConsumerCount = numberOfThreads;
-        CountDownLatch detailConsumersLatch = new CountDownLatch(detailConsumerCount);
+        ExecutorService listPageExecutor = executorFactory.newExecutor("enext-list", Math.min(numberOfThreads, estimatedPages));
+        ExecutorService detailPageExecutor = executorFactory.newExecutor("enext-detail", numberOfThreads);
         
-        for (int i = 0; i < detailConsumerCount; i++) {
-            detailPageExecutor.submit(() -> {
-                try {
-                    WebContentFetcher fetcher = new WebContentFetcher();
-                    while (!enoughCouponsCollected.get() && (!allListPagesDone.get() || !detailUrlQueue.isEmpty())) {
-                        String currentDetailUrl = null;
-                        try {
-                            // Poll with timeout to allow checking conditions
-                            currentDetailUrl = detailUrlQueue.poll(1, TimeUnit.SECONDS);
-                            if (currentDetailUrl == null) {
-                                continue; // Timeout, check conditions again
-                            }
-                            
-                            if (collectedCount.get() >= maxCouponRequest) {
-                                enoughCouponsCollected.set(true);
-                                break;
-                            }
-                            
-                            String udemyUrl = mapScrapedUrlToCouponUrl(currentDetailUrl);
-                            if (udemyUrl != null && !udemyUrl.isEmpty()) {
-                                synchronized (allUrls) {
-                                    if (collectedCount.get() < maxCouponRequest) {
-                                        allUrls.add(udemyUrl);
-                                        int current = collectedCount.incrementAndGet();
-                                        if (current >= maxCouponRequest) {
-                                            enoughCouponsCollected.set(true);
-                                        }
-                                    }
-                                }
-                            }
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            log.warn("Detail consumer interrupted", e);
-                            break;
-                        } catch (Exception e) {
-                            log.warn("Error processing detail page {}: {}", currentDetailUrl, e.getMessage());
+        // Detail consumers map each detail URL and emit it; the stage stops as soon as the quota is reached
+        CrawlerStage<String> detailStage = new CrawlerStage<>(numberOfThreads,
+                numberOfThreads * DETAIL_QUEUE_SLOTS_PER_CONSUMER,
+                detailUrl -> {
+                    String udemyUrl = mapScrapedUrlToCouponUrl(detailUrl, mappings);
+                    if (udemyUrl == null || udemyUrl.isEmpty()) {
+                        return true;
+                    }
+                    synchronized (emitLock) {
+                        if (collectedCount.get() >= maxCouponRequest) {
+                            return false;
                         }
+                        sink.accept(udemyUrl);
+                        mappings.emitted(detailUrl, udemyUrl);
+                        return collectedCount.incrementAndGet() < maxCouponRequest;
                     }
-                } finally {
-                    detailConsumersLatch.countDown();
-                }
-            });
-        }
+                },
+                detailStageMetrics);
+        detailStage.start(detailPageExecutor);
         
-        // Start list page producers concurrently
+        // Start list page producers: every page concurrently on a full sweep, page by page up to the known frontier otherwise
         try {
-            for (int page = 1; page <= estimatedPages && !enoughCouponsCollected.get(); page++) {
-                final int currentPage = page;
-                listPageExecutor.submit(() -> {
-                    try {
-                        if (enoughCouponsCollected.get()) {
+            if (fullSweep) {
+                for (int page = 1; page <= estimatedPages && !detailStage.isStopped(); page++) {
+                    final int currentPage = page;
+                    listPageExecutor.submit(() -> {
+                        if (detailStage.isStopped()) {
                             return;
                         }
-                        
-                        WebContentFetcher fetcher = new WebContentFetcher();
-                        String listUrl = String.format(LIST_PAGE_FORMAT, currentPage);
-                        Document listDoc = fetcher.getHtmlDocumentFrom(listUrl);
-                        
-                        if (listDoc == null) {
-                            log.warn("Failed to fetch list page: {}", listUrl);
-                            // Mark as done if this is the first page (site might be down)
-                            if (currentPage == 1) {
-                                allListPagesDone.set(true);
-                            }
-                            return;
+                        List<String> detailUrlsThisPage = fetchDetailUrls(currentPage, listPagesFetched);
+                        if (detailUrlsThisPage != null && !detailUrlsThisPage.isEmpty()) {
+                            queueDetailUrls(currentPage, detailUrlsThisPage, detailStage, collectedCount);
                         }
-                        
-                        Elements courseAnchors = listDoc.select("div.portfolio-item a[href]");
-                        if (courseAnchors.isEmpty()) {
-                            // No items on this page - we've reached the end
-                            allListPagesDone.set(true);
-                            log.info("Enext page {} is empty, stopping list page fetching", currentPage);
-                            return;
+                    });
+                }
+            } else {
+                listPageExecutor.submit(() -> {
+                    for (int page = 1; page <= estimatedPages && !detailStage.isStopped(); page++) {
+                        List<String> detailUrlsThisPage = fetchDetailUrls(page, listPagesFetched);
+                        if (detailUrlsThisPage == null || detailUrlsThisPage.isEmpty()) {
+                            break;
                         }
-                        
-                        List<String> detailUrlsThisPage = new ArrayList<>();
-                        for (Element a : courseAnchors) {
-                            if (enoughCouponsCollected.get()) {
-                                break;
-                            }
-                            String href = a.attr("href").trim();
-                            if (href.isEmpty()) continue;
-                            String detailUrl = href.startsWith("http") ? href : SITE_BASE + (href.startsWith("/") ? href : ("/" + href));
-                            detailUrlsThisPage.add(detailUrl);
+                        List<String> unknownDetailUrls = detailUrlsThisPage.stream()
+                                .filter(detailUrl -> !mappings.isKnown(detailUrl))
+                                .collect(Collectors.toList());
+                        if (!queueDetailUrls(page, unknownDetailUrls, detailStage, collectedCount)) {
+                            break;
                         }
-                        
-                        // Add detail URLs to queue for immediate processing
-                        for (String detailUrl : detailUrlsThisPage) {
-                            if (enoughCouponsCollected.get()) {
-                                break;
-                            }
-                            try {
-                                detailUrlQueue.put(detailUrl);
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                                log.warn("Interrupted while queueing detail URL {}", detailUrl, e);
-                                return;
-                            }
+                        if (unknownDetailUrls.isEmpty()) {
+                            log.info("Enext page {} contains only known detail URLs, stopping at the known frontier", page);
+                            break;
                         }
-                        
-                        int processed = listPagesProcessed.incrementAndGet();
-                        log.info("Enext page {} processed: {} detail URLs queued, collected so far {}",
-                                currentPage, detailUrlsThisPage.size(), collectedCount.get());
-                        
-                    } catch (Exception e) {
-                        log.warn("Error processing list page {}: {}", currentPage, e.getMessage());
                     }
                 });
             }
         } finally {
-            // Shutdown list page executor and wait for completion
+            // Producers return as soon as their pages are queued or the stage stops; the timeout is only a safety net
             listPageExecutor.shutdown();
             try {
                 if (!listPageExecutor.awaitTermination(60, TimeUnit.SECONDS)) {
                     listPageExecutor.shutdownNow();
                 }
+                detailStage.complete();
+                detailStage.awaitCompletion();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                log.warn("Interrupted while waiting for list page executor shutdown", e);
+                log.warn("Interrupted while waiting for Enext list and detail pages", e);
+                detailStage.stop();
                 listPageExecutor.shutdownNow();
+                detailPageExecutor.shutdownNow();
             }
+            detailPageExecutor.shutdown();
             
-            allListPagesDone.set(true);
+            flushRoundMappings(mappings);
+            String crawlMode = fullSweep ? "full" : "incremental";
+            Counter.builder("crawler.list.pages")
+                    .description("List pages fetched by a crawler")
+                    .tag("source", CRAWLER_SOURCE)
+                    .tag("mode", crawlMode)
+                    .register(meterRegistry)
+                    .increment(listPagesFetched.get());
+            log.info("Enext {} crawl fetched {} list pages and {} detail pages, emitted {} coupon URLs",
+                    crawlMode, listPagesFetched.get(), mappings.misses.get(), collectedCount.get());
+            if (fullSweep && !Thread.currentThread().isInterrupted()) {
+                recordFullSweep();
+            }
+        }
+    }
+
+    /**
+     * Fetches one list page and extracts its detail URLs.
+     *
+     * @param page             1-based list page number
+     * @param listPagesFetched incremented for every list page request
+     * @return detail URLs in page order, an empty list past the last page, or null if the page could not be fetched
+     */
+    private List<String> fetchDetailUrls(int page, AtomicInteger listPagesFetched) {
+        String listUrl = String.format(LIST_PAGE_FORMAT, page);
+        try {
+            listPagesFetched.incrementAndGet();
+            Document listDoc = new WebContentFetcher().getHtmlDocumentFrom(listUrl);
+            if (listDoc == null) {
+                log.warn("Failed to fetch list page: {}", listUrl);
+                return null;
+            }
             
-            try {
-                detailConsumersLatch.await();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Interrupted while waiting for detail consumers latch", e);
+            Elements courseAnchors = listDoc.select("div.portfolio-item a[href]");
+            if (courseAnchors.isEmpty()) {
+                // No items on this page - we've reached the end
+                log.info("Enext page {} is empty, stopping list page fetching", page);
+                return Collections.emptyList();
             }
             
-            detailPageExecutor.shutdown();
+            List<String> detailUrls = new ArrayList<>();
+            for (Element a : courseAnchors) {
+                String href = a.attr("href").trim();
+                if (href.isEmpty()) continue;
+                detailUrls.add(href.startsWith("http") ? href : SITE_BASE + (href.startsWith("/") ? href : ("/" + href)));
+            }
+            return detailUrls;
+        } catch (Exception e) {
+            log.warn("Error processing list page {}: {}", page, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Hands detail URLs to the detail consumers, blocking while their queue is full.
+     *
+     * @return false if the stage stopped (quota reached) or queueing was interrupted
+     */
+    private boolean queueDetailUrls(int page, List<String> detailUrls, CrawlerStage<String> detailStage,
+                                    AtomicInteger collectedCount) {
+        for (String detailUrl : detailUrls) {
             try {
-                if (!detailPageExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                    detailPageExecutor.shutdownNow();
+                if (!detailStage.submit(detailUrl)) {
+                    return false;
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                log.warn("Interrupted while waiting for detail page executor shutdown", e);
-                detailPageExecutor.shutdownNow();
+                log.warn("Interrupted while queueing detail URL {}", detailUrl, e);
+                return false;
             }
         }
-        
-        if (allUrls.size() > maxCouponRequest) {
-            return allUrls.subList(0, maxCouponRequest);
+        log.info("Enext page {} processed: {} detail URLs queued, collected so far {}",
+                page, detailUrls.size(), collectedCount.get());
+        return true;
+    }
+
+    /**
+     * A full sweep re-lists every page and re-emits known coupon URLs too. It runs when incremental crawling is
+     * off, when nothing is mapped yet, and at least every {@code custom.enext-full-sweep-hours} as a safety net
+     * for coupons the frontier could miss (e.g. a known course moving back to the top with a new coupon).
+     * Without Redis the last sweep time is unknown and every round is a full sweep.
+     */
+    private boolean isFullSweepDue(RoundMappings mappings) {
+        if (!incrementalCrawl || mappings.index.size() == 0) {
+            return true;
+        }
+        try {
+            String lastSweep = RedisService.getInstance().getString(FULL_SWEEP_KEY);
+            if (lastSweep == null || lastSweep.isEmpty()) {
+                return true;
+            }
+            long sinceLastSweepMs = System.currentTimeMillis() - Long.parseLong(lastSweep);
+            return sinceLastSweepMs >= TimeUnit.HOURS.toMillis(fullSweepHours);
+        } catch (IllegalStateException e) {
+            // Redis not available
+            return true;
+        } catch (Exception e) {
+            log.warn("Error reading last Enext full sweep time, doing a full sweep: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void recordFullSweep() {
+        try {
+            RedisService.getInstance().set(FULL_SWEEP_KEY, String.valueOf(System.currentTimeMillis()));
+        } catch (IllegalStateException e) {
+            log.warn("Redis not available, cannot save Enext full sweep time: {}", e.getMessage());
         }
-        return new ArrayList<>(allUrls);
     }
 }
@@ -1,76 +1,325 @@
 package com.huythanh0x.udemycoupons.crawler_runner.crawler;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.huythanh0x.udemycoupons.crawler_runner.base.CouponUrlCrawlerBase;
-import com.huythanh0x.udemycoupons.crawler_runner.fetcher.WebContentFetcher;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.huythanh0x.udemycoupons.crawler_runner.fetcher.HttpFetchEngine;
+import com.huythanh0x.udemycoupons.service.RedisService;
+import com.huythanh0x.udemycoupons.utils.Constant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpResponse;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
- * RealDiscountCrawler class extends CouponUrlCrawlerBase and implements a method to fetch coupon URLs from the Real Discount API.
+ * RealDiscountCrawler class extends CouponUrlCrawlerBase and fetches coupon URLs from the Real Discount API.
+ * <p>
+ * Items are requested newest first ({@code sortBy=sale_start}) in pages of {@code custom.real-discount-page-size}.
+ * The {@code sale_start}/{@code id} of the newest item is kept in Redis as a cursor, so a round only pages until it
+ * reaches items older than the previous round's newest one. Without a cursor (first round, Redis unavailable) up to
+ * {@code custom.number-of-real-discount-coupon} items are fetched, as before.
+ * <p>
+ * Responses are stream-parsed with Jackson: only the {@code url} and the cursor fields of each item are turned into
+ * Strings, everything else is skipped token by token. Upstream bytes and heap allocated per round are exported as
+ * {@code crawler.source.bytes} and {@code crawler.source.allocated.bytes}.
  */
 @Component
 public class RealDiscountCrawler extends CouponUrlCrawlerBase {
     private static final Logger log = LoggerFactory.getLogger(RealDiscountCrawler.class);
+    private static final String CRAWLER_SOURCE = "realdiscount";
+    private static final String PAGE_URL_FORMAT = "https://cdn.real.discount/api/courses?page=%d&limit=%d&sortBy=sale_start";
+    private static final String CURSOR_KEY = Constant.REDIS_KEY_CRAWLER_CURSOR_PREFIX + CRAWLER_SOURCE;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     int maxCouponRequest;
-    String apiUrl;
+    int pageSize;
+    private final Counter upstreamBytes;
+    private final DistributionSummary allocatedBytesPerRound;
 
-    RealDiscountCrawler(@Value("${custom.number-of-real-discount-coupon}") int maxCouponRequest) {
+    RealDiscountCrawler(@Value("${custom.number-of-real-discount-coupon}") int maxCouponRequest,
+                        @Value("${custom.real-discount-page-size:50}") int pageSize,
+                        MeterRegistry meterRegistry) {
         this.maxCouponRequest = maxCouponRequest;
-        this.apiUrl = String.format("https://cdn.real.discount/api/courses?page=1&limit=%s&sortBy=sale_start", maxCouponRequest);
+        this.pageSize = Math.max(1, Math.min(pageSize, maxCouponRequest));
+        this.upstreamBytes = Counter.builder("crawler.source.bytes")
+                .description("Response bytes downloaded by a coupon URL source")
+                .tag("source", CRAWLER_SOURCE)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.allocatedBytesPerRound = DistributionSummary.builder("crawler.source.allocated.bytes")
+                .description("Heap allocated by a coupon URL source during one round (platform threads only)")
+                .tag("source", CRAWLER_SOURCE)
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
     /**
-     * Retrieves a list of all coupon URLs from the API.
+     * Retrieves all new coupon URLs by collecting everything {@link #crawlCouponUrls(Consumer)} emits.
      *
      * @return List<String> containing all coupon URLs
      */
     @Override
     public List<String> getAllCouponUrls() {
-        var jsonArray = fetchListJsonFromAPI(apiUrl);
-        List<String> allUrls = new ArrayList<>();
-        for (var jo : jsonArray) {
-            JSONObject jsonObject = (JSONObject) jo;
-            allUrls.add(extractCouponUrl(jsonObject));
+        List<String> allUrls = Collections.synchronizedList(new ArrayList<>());
+        crawlCouponUrls(allUrls::add);
+        return new ArrayList<>(allUrls);
+    }
+
+    @Override
+    public String getSourceName() {
+        return CRAWLER_SOURCE;
+    }
+
+    /**
+     * Pages through the API newest first and emits coupon URLs as soon as their page is parsed, at most
+     * {@code custom.number-of-real-discount-coupon} per round. Stops at the first item not newer than the stored
+     * cursor or at a short page; without a cursor (first round) it stops at the limit.
+     * <p>
+     * When more items than the limit arrived since the last round, the newest ones are emitted and the rest are
+     * skipped, as with the former fixed-size fetch: paging continues past the limit without emitting until the old
+     * cursor is reached, so the cursor still moves to the newest item and the next round only reads what is new by
+     * then. A failed page keeps the old cursor, and the next round starts over from it.
+     *
+     * @param sink receives each coupon URL
+     */
+    @Override
+    public void crawlCouponUrls(Consumer<String> sink) {
+        long allocatedBefore = currentThreadAllocatedBytes();
+        Cursor cursor = loadCursor();
+        Cursor newest = null;
+        int emitted = 0;
+        long bytes = 0;
+        int pages = 0;
+        boolean reachedCursor = false;
+        boolean reachedEnd = false;
+
+        // With a cursor, paging continues past the limit until the cursor is reached, only to move the cursor
+        for (int page = 1; !reachedCursor && (cursor != null || emitted < maxCouponRequest); page++) {
+            String pageUrl = String.format(PAGE_URL_FORMAT, page, pageSize);
+            PageResult result = fetchPage(pageUrl);
+            if (result == null) {
+                break;
+            }
+            pages++;
+            bytes += result.bytes();
+            for (Item item : result.items()) {
+                if (newest == null && item.saleStart() != null) {
+                    newest = new Cursor(item.saleStart(), item.id());
+                }
+                if (cursor != null && cursor.hasSeen(item)) {
+                    reachedCursor = true;
+                    break;
+                }
+                if (item.url() == null || emitted >= maxCouponRequest) {
+                    continue;
+                }
+                sink.accept(item.url());
+                emitted++;
+            }
+            if (result.items().size() < pageSize) {
+                reachedEnd = true;
+                break;
+            }
+        }
+
+        if (newest != null && (cursor == null || reachedCursor || reachedEnd)) {
+            saveCursor(newest);
         }
-        log.info("Fetched {} coupons from RealDiscount (requested {})", jsonArray.length(), maxCouponRequest);
-        return allUrls;
+        long allocatedAfter = currentThreadAllocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= allocatedBefore) {
+            allocatedBytesPerRound.record(allocatedAfter - allocatedBefore);
+        }
+        log.info("Fetched {} new coupons from RealDiscount in {} pages ({} KiB, {}), limit {}",
+                emitted, pages, bytes / 1024,
+                cursor == null ? "no cursor" : (reachedCursor ? "stopped at cursor " + cursor
+                        : reachedEnd ? "end of listing" : "page failed, cursor kept"),
+                maxCouponRequest);
     }
 
     /**
-     * Extracts the coupon URL from the given JSONObject by removing
-     * the specified predefined string from it.
+     * Downloads one page and stream-parses its {@code items}.
      *
-     * @param jsonObject JSONObject containing the coupon URL
-     * @return Extracted coupon URL
+     * @param pageUrl URL of the page
+     * @return parsed items with the response size, or null if the request or parsing failed
      */
-    String extractCouponUrl(JSONObject jsonObject) {
-        return jsonObject.getString("url");
+    private PageResult fetchPage(String pageUrl) {
+        try {
+            HttpResponse<InputStream> response = HttpFetchEngine.getInstance()
+                    .send(pageUrl, HttpResponse.BodyHandlers.ofInputStream());
+            try (CountingInputStream body = new CountingInputStream(response.body())) {
+                if (response.statusCode() >= 400) {
+                    log.warn("RealDiscount page {} returned HTTP {}", pageUrl, response.statusCode());
+                    return null;
+                }
+                List<Item> items = new ArrayList<>(pageSize);
+                parseItems(body, items::add);
+                upstreamBytes.increment(body.count);
+                return new PageResult(items, body.count);
+            }
+        } catch (IOException e) {
+            log.warn("Error fetching or parsing RealDiscount page {}: {}", pageUrl, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while fetching RealDiscount page {}", pageUrl, e);
+        }
+        return null;
     }
 
     /**
-     * Fetches a JSONArray from a given API URL.
+     * Reads {@code {"items": [{...}, ...], ...}} token by token. Only {@code url}, {@code sale_start} and
+     * {@code id} are materialized; other fields, nested values and other top-level members are skipped.
      *
-     * @param apiUrl the URL of the API to fetch the JSON data from
-     * @return a JSONArray containing the results fetched from the API, or an empty JSONArray if the request failed
+     * @param in       response body
+     * @param consumer receives each item in document order
+     * @throws IOException if the body is not valid JSON
      */
-    public JSONArray fetchListJsonFromAPI(String apiUrl) {
-        JSONObject jsonObject = WebContentFetcher.getJsonObjectFrom(apiUrl);
-        if (jsonObject == null) {
-            log.warn("Failed to fetch JSON from {}, returning empty array", apiUrl);
-            return new JSONArray();
+    static void parseItems(InputStream in, Consumer<Item> consumer) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"items".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    consumer.accept(parseItem(parser));
+                }
+            }
         }
+    }
+
+    private static Item parseItem(JsonParser parser) throws IOException {
+        String url = null;
+        String saleStart = null;
+        String id = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "url" -> url = parser.getValueAsString();
+                case "sale_start" -> saleStart = parser.getValueAsString();
+                case "id" -> id = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new Item(url, saleStart, id);
+    }
+
+    private static Cursor loadCursor() {
         try {
-            return jsonObject.getJSONArray("items");
+            return Cursor.parse(RedisService.getInstance().getString(CURSOR_KEY));
+        } catch (IllegalStateException e) {
+            // Redis not available
+            return null;
         } catch (Exception e) {
-            log.warn("Error extracting 'items' array from JSON: {}", e.getMessage());
-            return new JSONArray();
+            log.warn("Error reading RealDiscount cursor, fetching without it: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void saveCursor(Cursor cursor) {
+        try {
+            RedisService.getInstance().set(CURSOR_KEY, cursor.toString());
+        } catch (IllegalStateException e) {
+            log.warn("Redis not available, cannot save RealDiscount cursor: {}", e.getMessage());
+        }
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * The fields of one API item the crawler needs.
+     */
+    record Item(String url, String saleStart, String id) {
+    }
+
+    private record PageResult(List<Item> items, long bytes) {
+    }
+
+    /**
+     * Newest item seen in the previous round. {@code sale_start} values are ISO-8601 timestamps of the same
+     * format, so they compare correctly as strings.
+     */
+    record Cursor(String saleStart, String id) {
+
+        static Cursor parse(String value) {
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            int separator = value.lastIndexOf('|');
+            return separator < 0
+                    ? new Cursor(value, null)
+                    : new Cursor(value.substring(0, separator), value.substring(separator + 1));
+        }
+
+        /**
+         * @return true if the item was already seen: older than the cursor, or the cursor item itself.
+         * Items sharing the cursor's {@code sale_start} are emitted again; the runner deduplicates them.
+         */
+        boolean hasSeen(Item item) {
+            if (item.saleStart() == null) {
+                return false;
+            }
+            int comparison = item.saleStart().compareTo(saleStart);
+            return comparison < 0 || (comparison == 0 && id != null && id.equals(item.id()));
+        }
+
+        @Override
+        public String toString() {
+            return id == null ? saleStart : saleStart + "|" + id;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
         }
     }
 }
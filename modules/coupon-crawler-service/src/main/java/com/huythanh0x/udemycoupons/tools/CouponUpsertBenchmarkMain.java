@@ -0,0 +1,146 @@
+package com.huythanh0x.udemycoupons.tools;
+
+import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
+import com.huythanh0x.udemycoupons.repository.CouponCourseRepositoryCustomImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures coupon write throughput (rows/second) for the per-row path that JPA {@code merge} takes with an
+ * assigned id (SELECT, then INSERT or UPDATE) against the batched {@code INSERT ... ON DUPLICATE KEY UPDATE}
+ * of {@link CouponCourseRepositoryCustomImpl}.
+ * <p>
+ * Runs against an existing schema (Flyway-migrated MySQL). Rows use negative course ids and a
+ * {@code https://bench.invalid/} URL so they cannot collide with real coupons, and are deleted afterwards.
+ * Each mode is measured twice: once inserting fresh rows and once updating the same rows.
+ *
+ * Usage (example):
+ * ./gradlew :modules:coupon-crawler-service:benchmarkCouponUpsert \
+ *   --args="--url=jdbc:mysql://localhost:3306/training_coupon?rewriteBatchedStatements=true --user=root --password=password --rows=100 --rounds=20"
+ */
+public class CouponUpsertBenchmarkMain {
+    private static final String BENCH_URL_PREFIX = "https://bench.invalid/course/";
+
+    public static void main(String[] args) {
+        String url = stringArg(args, "--url=",
+                "jdbc:mysql://localhost:3306/training_coupon?rewriteBatchedStatements=true");
+        String user = stringArg(args, "--user=", "root");
+        String password = stringArg(args, "--password=", "password");
+        int rows = Integer.parseInt(stringArg(args, "--rows=", "100"));
+        int rounds = Integer.parseInt(stringArg(args, "--rounds=", "20"));
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, user, password));
+        CouponCourseRepositoryCustomImpl upsertRepository = new CouponCourseRepositoryCustomImpl(jdbcTemplate);
+
+        System.out.printf("==== Coupon write benchmark: %d rows per batch, %d batches, %s ====%n", rows, rounds, url);
+        System.out.printf("%-34s %12s %12s%n", "mode", "insert r/s", "update r/s");
+        try {
+            cleanup(jdbcTemplate, rows);
+            double perRowInsert = measure(rows, rounds, batch -> perRowMerge(jdbcTemplate, batch), () -> cleanup(jdbcTemplate, rows), true);
+            double perRowUpdate = measure(rows, rounds, batch -> perRowMerge(jdbcTemplate, batch), () -> { }, false);
+            cleanup(jdbcTemplate, rows);
+            System.out.printf("%-34s %12.0f %12.0f%n", "per-row SELECT + INSERT/UPDATE", perRowInsert, perRowUpdate);
+
+            double upsertInsert = measure(rows, rounds, upsertRepository::upsertAll, () -> cleanup(jdbcTemplate, rows), true);
+            double upsertUpdate = measure(rows, rounds, upsertRepository::upsertAll, () -> { }, false);
+            System.out.printf("%-34s %12.0f %12.0f%n", "batched INSERT ON DUPLICATE KEY", upsertInsert, upsertUpdate);
+        } finally {
+            cleanup(jdbcTemplate, rows);
+        }
+    }
+
+    /**
+     * @param resetBeforeEachRound true to delete the rows before every round so each write is an insert
+     * @return rows per second
+     */
+    private static double measure(int rows, int rounds, Consumer<List<CouponCourseData>> writer,
+                                  Runnable reset, boolean resetBeforeEachRound) {
+        long totalNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            if (resetBeforeEachRound) {
+                reset.run();
+            }
+            List<CouponCourseData> batch = sampleBatch(rows, round);
+            long start = System.nanoTime();
+            writer.accept(batch);
+            totalNanos += System.nanoTime() - start;
+        }
+        return rows * (double) rounds / Math.max(totalNanos, 1) * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Mirrors what JPA merge issues for an assigned id: a lookup, then an INSERT or an UPDATE, one row at a time.
+     */
+    private static void perRowMerge(JdbcTemplate jdbcTemplate, List<CouponCourseData> batch) {
+        for (CouponCourseData coupon : batch) {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM coupon_course_data WHERE course_id = ?", Integer.class, coupon.getCourseId());
+            Timestamp expiredDate = Timestamp.from(coupon.getExpiredDate());
+            if (existing != null && existing > 0) {
+                jdbcTemplate.update("UPDATE coupon_course_data SET title = ?, coupon_code = ?, coupon_url = ?, " +
+                                "expired_date = ?, uses_remaining = ?, is_new = ?, updated_at = NOW() WHERE course_id = ?",
+                        coupon.getTitle(), coupon.getCouponCode(), coupon.getCouponUrl(), expiredDate,
+                        coupon.getUsesRemaining(), coupon.isNew(), coupon.getCourseId());
+            } else {
+                jdbcTemplate.update("INSERT INTO coupon_course_data (course_id, title, coupon_code, coupon_url, " +
+                                "expired_date, uses_remaining, is_new, created_at, updated_at) " +
+                                "VALUES (?, ?, ?, ?, ?, ?, ?, NOW(), NOW())",
+                        coupon.getCourseId(), coupon.getTitle(), coupon.getCouponCode(), coupon.getCouponUrl(),
+                        expiredDate, coupon.getUsesRemaining(), coupon.isNew());
+            }
+        }
+    }
+
+    private static List<CouponCourseData> sampleBatch(int rows, int round) {
+        List<CouponCourseData> batch = new ArrayList<>(rows);
+        Instant expiredDate = Instant.now().plus(2, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(CouponCourseData.builder()
+                    .courseId(-i)
+                    .category("Development")
+                    .subCategory("Programming Languages")
+                    .title("Benchmark course " + i)
+                    .contentLength(120)
+                    .level("All")
+                    .author("Benchmark")
+                    .rating(4.5f)
+                    .reviews(100 + round)
+                    .students(1000 + round)
+                    .couponCode("BENCH" + round)
+                    .previewImage("")
+                    .couponUrl(BENCH_URL_PREFIX + i + "/?couponCode=BENCH" + round)
+                    .expiredDate(expiredDate)
+                    .usesRemaining(500 - round)
+                    .heading("Benchmark heading")
+                    .description("Benchmark description")
+                    .previewVideo("")
+                    .language("English")
+                    .isNew(round == 0)
+                    .build());
+        }
+        return batch;
+    }
+
+    private static void cleanup(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("DELETE FROM coupon_course_data WHERE course_id BETWEEN ? AND -1 AND coupon_url LIKE ?",
+                -rows, BENCH_URL_PREFIX + "%");
+    }
+
+    private static String stringArg(String[] args, String prefix, String defaultValue) {
+        if (args == null) return defaultValue;
+        for (String arg : args) {
+            if (arg != null && arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
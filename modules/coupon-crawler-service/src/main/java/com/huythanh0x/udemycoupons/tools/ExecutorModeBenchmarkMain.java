@@ -0,0 +1,128 @@
+package com.huythanh0x.udemycoupons.tools;
+
+import com.huythanh0x.udemycoupons.crawler_runner.fetcher.HttpFetchEngine;
+import com.huythanh0x.udemycoupons.utils.ExecutorFactory;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares platform and virtual executor modes for blocking upstream fetches.
+ * <p>
+ * Starts a local stub server that answers every request after a fixed delay (simulating Udemy latency),
+ * then pushes the same number of requests through {@link HttpFetchEngine} using:
+ * <ul>
+ *   <li>a platform pool sized like production ({@code --platform-threads}),</li>
+ *   <li>a platform pool sized to the target concurrency,</li>
+ *   <li>virtual threads bounded only by the per-host limiter (Java 21+ only).</li>
+ * </ul>
+ *
+ * Usage (example):
+ * ./gradlew :modules:coupon-crawler-service:benchmarkExecutorModes --args="--requests=2000 --latency-ms=100 --concurrency=200"
+ */
+public class ExecutorModeBenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        int requests = intArg(args, "--requests=", 2000);
+        int latencyMs = intArg(args, "--latency-ms=", 100);
+        int platformThreads = intArg(args, "--platform-threads=", 4);
+        int concurrency = intArg(args, "--concurrency=", 200);
+
+        ScheduledExecutorService responder = Executors.newScheduledThreadPool(4);
+        HttpServer server = startStubServer(responder, latencyMs);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/coupon";
+        try {
+            System.out.printf("==== Executor mode benchmark: %d requests, %d ms upstream latency ====%n", requests, latencyMs);
+            System.out.printf("%-28s %10s %12s %14s%n", "mode", "wall ms", "req/s", "peak threads");
+
+            run("platform(" + platformThreads + " threads)", new ExecutorFactory(ExecutorFactory.MODE_PLATFORM),
+                    platformThreads, concurrency, requests, url);
+            run("platform(" + concurrency + " threads)", new ExecutorFactory(ExecutorFactory.MODE_PLATFORM),
+                    concurrency, concurrency, requests, url);
+            if (ExecutorFactory.isVirtualThreadSupported()) {
+                run("virtual(limit " + concurrency + ")", new ExecutorFactory(ExecutorFactory.MODE_VIRTUAL),
+                        0, concurrency, requests, url);
+            } else {
+                System.out.println("virtual: skipped, requires a Java 21+ runtime (running " + Runtime.version() + ")");
+            }
+        } finally {
+            server.stop(0);
+            responder.shutdownNow();
+        }
+    }
+
+    private static void run(String label, ExecutorFactory factory, int threads, int concurrency,
+                            int requests, String url) throws Exception {
+        HttpFetchEngine engine = new HttpFetchEngine(Duration.ofSeconds(5), Duration.ofSeconds(30), concurrency, null);
+        // Warm up the pooled connection so every mode starts from the same state
+        engine.send(url, HttpResponse.BodyHandlers.discarding());
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        threadBean.resetPeakThreadCount();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = factory.newExecutor("bench", threads);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    engine.send(url, HttpResponse.BodyHandlers.ofString());
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        executor.shutdown();
+
+        System.out.printf("%-28s %10d %12.1f %14d%s%n", label, wallMs, requests * 1000.0 / Math.max(wallMs, 1),
+                threadBean.getPeakThreadCount(), failures.get() > 0 ? "  (" + failures.get() + " failed)" : "");
+    }
+
+    private static HttpServer startStubServer(ScheduledExecutorService responder, int latencyMs) throws IOException {
+        byte[] body = "{\"price_text\":{\"data\":{\"pricing_result\":{\"price\":{\"amount\":0}}}}}"
+                .getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/", exchange -> responder.schedule(() -> {
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            } catch (IOException ignored) {
+                // Client went away; nothing to do for a benchmark stub
+            }
+        }, latencyMs, TimeUnit.MILLISECONDS));
+        server.setExecutor(Executors.newFixedThreadPool(2));
+        server.start();
+        return server;
+    }
+
+    private static int intArg(String[] args, String prefix, int defaultValue) {
+        if (args == null) return defaultValue;
+        for (String arg : args) {
+            if (arg != null && arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+}
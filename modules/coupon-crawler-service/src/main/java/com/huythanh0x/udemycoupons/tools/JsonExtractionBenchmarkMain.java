@@ -0,0 +1,225 @@
+package com.huythanh0x.udemycoupons.tools;
+
+import com.huythanh0x.udemycoupons.crawler_runner.UdemyCouponCourseExtractor;
+import com.huythanh0x.udemycoupons.crawler_runner.fetcher.WebContentFetcher;
+import com.huythanh0x.udemycoupons.utils.JsonPathCollector;
+import com.huythanh0x.udemycoupons.utils.UrlUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the org.json DOM path with the streaming {@link JsonPathCollector} used by
+ * {@link UdemyCouponCourseExtractor} on recorded Udemy API responses.
+ * <p>
+ * For each fixture both extractors run for a warm-up period and then a measured period; the tool prints
+ * operations per second and heap bytes allocated per operation (measured with the thread allocation counter),
+ * and checks that both paths extract the same values.
+ * <p>
+ * Fixtures are {@code coupon-*.json} and {@code course-*.json} files in {@code --fixtures} (default
+ * {@code build/json-fixtures}). Record them once from live responses with {@code --record --course-id=... --coupon-code=...};
+ * when no fixtures exist a synthetic 25-component coupon payload and a course payload are used instead.
+ *
+ * Usage (example):
+ * ./gradlew :modules:coupon-crawler-service:benchmarkJsonExtraction --args="--record --course-id=6643369 --coupon-code=FREE"
+ * ./gradlew :modules:coupon-crawler-service:benchmarkJsonExtraction --args="--seconds=5"
+ */
+public class JsonExtractionBenchmarkMain {
+    // Keeps the JIT from eliminating the measured work
+    private static volatile long blackhole;
+
+    public static void main(String[] args) throws Exception {
+        Path fixtures = Path.of(stringArg(args, "--fixtures=", "build/json-fixtures"));
+        int seconds = intArg(args, "--seconds=", 3);
+
+        if (hasFlag(args, "--record")) {
+            record(fixtures, intArg(args, "--course-id=", 0), stringArg(args, "--coupon-code=", ""));
+        }
+
+        Map<String, byte[]> couponBodies = loadFixtures(fixtures, "coupon-");
+        Map<String, byte[]> courseBodies = loadFixtures(fixtures, "course-");
+        if (couponBodies.isEmpty() && courseBodies.isEmpty()) {
+            System.out.println("No fixtures in " + fixtures.toAbsolutePath() + ", using synthetic payloads");
+            couponBodies.put("synthetic-coupon", syntheticCouponPayload().getBytes(StandardCharsets.UTF_8));
+            courseBodies.put("synthetic-course", syntheticCoursePayload().getBytes(StandardCharsets.UTF_8));
+        }
+
+        System.out.printf("==== JSON extraction benchmark: %d s warm-up + %d s measured per case ====%n", seconds, seconds);
+        System.out.printf("%-28s %-10s %10s %12s %16s%n", "fixture", "path", "KiB", "ops/s", "alloc bytes/op");
+        for (Map.Entry<String, byte[]> entry : couponBodies.entrySet()) {
+            compare(entry.getKey(), entry.getValue(), UdemyCouponCourseExtractor.COUPON_FIELDS, seconds);
+        }
+        for (Map.Entry<String, byte[]> entry : courseBodies.entrySet()) {
+            compare(entry.getKey(), entry.getValue(), UdemyCouponCourseExtractor.COURSE_FIELDS, seconds);
+        }
+    }
+
+    private static void compare(String name, byte[] body, JsonPathCollector collector, int seconds) throws Exception {
+        Map<String, String> dom = extractWithDom(body, collector);
+        Map<String, String> streamed = collector.collect(new ByteArrayInputStream(body));
+        if (!dom.equals(streamed)) {
+            System.out.printf("%-28s values differ!%n  org.json:  %s%n  streaming: %s%n", name, dom, streamed);
+        }
+        measure(name, "org.json", body.length, seconds, () -> extractWithDom(body, collector));
+        measure(name, "streaming", body.length, seconds, () -> collector.collect(new ByteArrayInputStream(body)));
+    }
+
+    /**
+     * The previous extraction path: decode the body, build the whole DOM, then look up each field.
+     */
+    private static Map<String, String> extractWithDom(byte[] body, JsonPathCollector collector) {
+        JSONObject root = new JSONObject(new String(body, StandardCharsets.UTF_8));
+        Map<String, String> values = new HashMap<>();
+        for (String path : collector.paths()) {
+            Object value = root.optQuery(toJsonPointer(path));
+            if (value != null && value != JSONObject.NULL && !(value instanceof JSONObject)
+                    && !(value instanceof JSONArray)) {
+                values.put(path, value.toString());
+            }
+        }
+        return values;
+    }
+
+    private static String toJsonPointer(String path) {
+        return "/" + path.replace('.', '/').replace("[", "/").replace("]", "");
+    }
+
+    private static void measure(String name, String label, int bytes, int seconds, Extraction extraction)
+            throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long sink = 0;
+        while (System.nanoTime() < deadline) {
+            sink += extraction.run().size();
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        deadline = start + seconds * 1_000_000_000L;
+        long ops = 0;
+        while (System.nanoTime() < deadline) {
+            sink += extraction.run().size();
+            ops++;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-28s %-10s %10.1f %12.0f %16s%n", name, label, bytes / 1024.0,
+                ops / (elapsed / 1e9), allocatedBefore < 0 ? "n/a" : String.valueOf(allocated / Math.max(ops, 1)));
+        blackhole = sink;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static void record(Path fixtures, int courseId, String couponCode) throws IOException {
+        if (courseId <= 0) {
+            System.out.println("--record requires --course-id=<id>");
+            return;
+        }
+        Files.createDirectories(fixtures);
+        writeFixture(fixtures.resolve("coupon-" + courseId + ".json"), UrlUtils.getCouponAPI(courseId, couponCode));
+        writeFixture(fixtures.resolve("course-" + courseId + ".json"), UrlUtils.getCourseAPI(courseId));
+    }
+
+    private static void writeFixture(Path file, String url) throws IOException {
+        String body = WebContentFetcher.getRawHTMLContentFrom(url);
+        if (body == null || body.isEmpty()) {
+            System.out.println("Failed to record " + url);
+            return;
+        }
+        Files.writeString(file, body);
+        System.out.printf("Recorded %s (%d KiB)%n", file, body.length() / 1024);
+    }
+
+    private static Map<String, byte[]> loadFixtures(Path fixtures, String prefix) throws IOException {
+        Map<String, byte[]> bodies = new TreeMap<>();
+        if (!Files.isDirectory(fixtures)) {
+            return bodies;
+        }
+        try (var files = Files.list(fixtures)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (fileName.startsWith(prefix) && fileName.endsWith(".json")) {
+                    bodies.put(fileName, Files.readAllBytes(file));
+                }
+            }
+        }
+        return bodies;
+    }
+
+    /**
+     * Shaped like a course-landing-components response: 25 components, the pricing and sidebar ones holding
+     * the fields the extractor needs and the others padded with realistic nested content.
+     */
+    private static String syntheticCouponPayload() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 22; i++) {
+            json.append("\"component_").append(i).append("\":{\"type\":\"component\",\"data\":{\"items\":[");
+            for (int j = 0; j < 20; j++) {
+                if (j > 0) json.append(',');
+                json.append("{\"id\":").append(j).append(",\"text\":\"Lorem ipsum dolor sit amet, consectetur ")
+                        .append("adipiscing elit\",\"enabled\":true,\"score\":").append(j * 0.5).append('}');
+            }
+            json.append("]}},");
+        }
+        json.append("\"price_text\":{\"data\":{\"pricing_result\":{\"price\":{\"amount\":0,\"currency\":\"USD\"},")
+                .append("\"list_price\":{\"amount\":19.99},\"campaign\":{\"code\":\"FREE\",")
+                .append("\"end_time\":\"2030-05-19 17:24:00+00:00\",\"uses_remaining\":512}}}},");
+        json.append("\"sidebar_container\":{\"componentProps\":{\"introductionAsset\":{")
+                .append("\"images\":{\"image_750x422\":\"https://img-c.udemycdn.com/course/750x422/1.jpg\"},")
+                .append("\"course_preview_path\":\"/course/1/preview/\"}}},");
+        json.append("\"purchase\":{\"data\":{\"is_enrolled\":false}}}");
+        return json.toString();
+    }
+
+    private static String syntheticCoursePayload() {
+        return "{\"_class\":\"course\",\"id\":1,\"title\":\"Synthetic course\",\"headline\":\"Learn things\","
+                + "\"description\":\"<p>" + "Lorem ipsum dolor sit amet. ".repeat(200) + "</p>\","
+                + "\"visible_instructors\":[{\"title\":\"Jane Doe\",\"job_title\":\"Engineer\"}],"
+                + "\"primary_category\":{\"title\":\"Development\"},"
+                + "\"primary_sub_category\":{\"title\":\"Web Development\"},"
+                + "\"locale\":{\"simple_english_title\":\"English\"},"
+                + "\"instructional_level\":\"All Levels\",\"num_subscribers\":12345,"
+                + "\"avg_rating_recent\":4.6,\"num_reviews\":321,\"estimated_content_length\":180}";
+    }
+
+    @FunctionalInterface
+    private interface Extraction {
+        Map<String, String> run() throws Exception;
+    }
+
+    private static boolean hasFlag(String[] args, String flag) {
+        for (String arg : args) {
+            if (arg.equals(flag)) return true;
+        }
+        return false;
+    }
+
+    private static int intArg(String[] args, String prefix, int defaultValue) {
+        String value = stringArg(args, prefix, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static String stringArg(String[] args, String prefix, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,158 @@
+package com.huythanh0x.udemycoupons.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.huythanh0x.udemycoupons.dto.CouponCardDTO;
+import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the listing payload of full {@link CouponCourseData} entities, as listings returned them before, with
+ * the {@link CouponCardDTO} cards they return now, with and without the optional fields.
+ * <p>
+ * Each case serializes one page of synthetic coupons (shaped like crawled ones, with a multi-kilobyte HTML
+ * description) with a Jackson mapper configured like Spring Boot's, for a warm-up period and then a measured
+ * period; the tool prints bytes per page, operations per second and heap bytes allocated per operation
+ * (measured with the thread allocation counter). Needs no database.
+ *
+ * Usage (example):
+ * ./gradlew :modules:coupon-crawler-service:benchmarkListingPayload --args="--seconds=5 --page-size=20"
+ */
+public class ListingPayloadBenchmarkMain {
+    // Keeps the JIT from eliminating the measured work
+    private static volatile long blackhole;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = intArg(args, "--seconds=", 3);
+        int pageSize = intArg(args, "--page-size=", 20);
+        ObjectMapper mapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        List<CouponCourseData> entities = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            entities.add(syntheticCoupon(i));
+        }
+        List<CouponCardDTO> cards = new ArrayList<>();
+        List<CouponCardDTO> fullCards = new ArrayList<>();
+        for (CouponCourseData entity : entities) {
+            cards.add(toCard(entity, false));
+            fullCards.add(toCard(entity, true));
+        }
+
+        System.out.printf("==== Listing payload benchmark: %d coupons per page, %d s warm-up + %d s measured per case ====%n",
+                pageSize, seconds, seconds);
+        System.out.printf("%-24s %12s %12s %16s%n", "payload", "bytes/page", "ops/s", "alloc bytes/op");
+        measure("entity", seconds, () -> mapper.writeValueAsBytes(entities));
+        measure("card", seconds, () -> mapper.writeValueAsBytes(cards));
+        measure("card + optional fields", seconds, () -> mapper.writeValueAsBytes(fullCards));
+    }
+
+    private static void measure(String label, int seconds, Serialization serialization) throws Exception {
+        int bytes = serialization.run().length;
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long sink = 0;
+        while (System.nanoTime() < deadline) {
+            sink += serialization.run().length;
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        deadline = start + seconds * 1_000_000_000L;
+        long ops = 0;
+        while (System.nanoTime() < deadline) {
+            sink += serialization.run().length;
+            ops++;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-24s %12d %12.0f %16s%n", label, bytes, ops / (elapsed / 1e9),
+                allocatedBefore < 0 ? "n/a" : String.valueOf(allocated / Math.max(ops, 1)));
+        blackhole = sink;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static CouponCourseData syntheticCoupon(int i) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return CouponCourseData.builder()
+                .courseId(1_000_000 + i)
+                .category("Development")
+                .subCategory("Web Development")
+                .title("Synthetic course " + i + ": build modern web applications from scratch")
+                .contentLength(180 + i)
+                .level("All Levels")
+                .author("Jane Doe")
+                .rating(4.6f)
+                .reviews(321 + i)
+                .students(12345 + i)
+                .couponCode("FREE" + i)
+                .previewImage("https://img-c.udemycdn.com/course/750x422/" + i + ".jpg")
+                .couponUrl("https://www.udemy.com/course/synthetic-" + i + "/?couponCode=FREE" + i)
+                .expiredDate(now.plus(3, ChronoUnit.DAYS))
+                .usesRemaining(512)
+                .usesPerHour(12.5)
+                .depletesAt(now.plus(40, ChronoUnit.HOURS))
+                .heading("Learn things step by step with hands-on projects")
+                .description("<p>" + "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(80) + "</p>")
+                .previewVideo("https://www.udemy.com/course/" + (1_000_000 + i) + "/preview/")
+                .language("English")
+                .isNew(true)
+                .createdAt(LocalDateTime.now().withNano(0))
+                .updatedAt(LocalDateTime.now().withNano(0))
+                .build();
+    }
+
+    private static CouponCardDTO toCard(CouponCourseData coupon, boolean withOptionalFields) {
+        return CouponCardDTO.builder()
+                .courseId(coupon.getCourseId())
+                .category(coupon.getCategory())
+                .subCategory(coupon.getSubCategory())
+                .title(coupon.getTitle())
+                .contentLength(coupon.getContentLength())
+                .level(coupon.getLevel())
+                .author(coupon.getAuthor())
+                .rating(coupon.getRating())
+                .reviews(coupon.getReviews())
+                .students(coupon.getStudents())
+                .couponCode(coupon.getCouponCode())
+                .previewImage(coupon.getPreviewImage())
+                .couponUrl(coupon.getCouponUrl())
+                .expiredDate(coupon.getExpiredDate())
+                .usesRemaining(coupon.getUsesRemaining())
+                .language(coupon.getLanguage())
+                .isNew(coupon.isNew())
+                .createdAt(coupon.getCreatedAt())
+                .heading(coupon.getHeading())
+                .description(withOptionalFields ? coupon.getDescription() : null)
+                .previewVideo(withOptionalFields ? coupon.getPreviewVideo() : null)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Serialization {
+        byte[] run() throws Exception;
+    }
+
+    private static int intArg(String[] args, String prefix, int defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+}
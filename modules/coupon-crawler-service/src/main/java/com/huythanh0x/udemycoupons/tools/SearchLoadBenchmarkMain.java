@@ -0,0 +1,190 @@
+package com.huythanh0x.udemycoupons.tools;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures coupon search latency under concurrent load for the former substring search
+ * (three {@code LIKE '%q%'} predicates over title, description and heading)
+ * against the FULLTEXT search of {@code CouponCourseSearchRepository} ({@code MATCH ... AGAINST}, ranked by
+ * relevance), alone and combined with category and rating filters, which should cost no more than the text alone.
+ * <p>
+ * Each request issues what one API search issues: the page query (20 rows) plus the count query. For every
+ * concurrency level, each worker thread holds its own connection and cycles through the search terms for a
+ * warm-up period and then a measured period; the tool prints requests per second and latency percentiles.
+ * Runs read-only against an existing, Flyway-migrated schema, ideally one filled by a few crawl rounds.
+ *
+ * Usage (example):
+ * ./gradlew :modules:coupon-crawler-service:benchmarkSearch \
+ *   --args="--url=jdbc:mysql://localhost:3306/training_coupon --user=root --password=password --threads=1,8,32 --seconds=10 --category=Development --min-rating=4"
+ */
+public class SearchLoadBenchmarkMain {
+    private static final String LIKE_PAGE_SQL =
+            "SELECT * FROM coupon_course_data WHERE title LIKE ? OR description LIKE ? OR heading LIKE ? " +
+            "ORDER BY created_at DESC LIMIT 20";
+    private static final String LIKE_COUNT_SQL =
+            "SELECT COUNT(*) FROM coupon_course_data WHERE title LIKE ? OR description LIKE ? OR heading LIKE ?";
+    private static final String FULLTEXT_PAGE_SQL =
+            "SELECT * FROM coupon_course_data " +
+            "WHERE MATCH(title, heading, description) AGAINST (? IN NATURAL LANGUAGE MODE) " +
+            "ORDER BY MATCH(title, heading, description) AGAINST (? IN NATURAL LANGUAGE MODE) DESC, course_id LIMIT 20";
+    private static final String FULLTEXT_COUNT_SQL =
+            "SELECT COUNT(*) FROM coupon_course_data " +
+            "WHERE MATCH(title, heading, description) AGAINST (? IN NATURAL LANGUAGE MODE)";
+
+    private static final String FILTERED_PAGE_SQL =
+            "SELECT * FROM coupon_course_data " +
+            "WHERE MATCH(title, heading, description) AGAINST (? IN NATURAL LANGUAGE MODE) " +
+            "AND rating > ? AND category LIKE ? " +
+            "ORDER BY MATCH(title, heading, description) AGAINST (? IN NATURAL LANGUAGE MODE) DESC, course_id LIMIT 20";
+    private static final String FILTERED_COUNT_SQL =
+            "SELECT COUNT(*) FROM coupon_course_data " +
+            "WHERE MATCH(title, heading, description) AGAINST (? IN NATURAL LANGUAGE MODE) " +
+            "AND rating > ? AND category LIKE ?";
+
+    private static final String DEFAULT_TERMS =
+            "python,javascript,excel,marketing,machine learning,photoshop,react,sql,project management,java";
+
+    private static String category;
+    private static String minRating;
+
+    public static void main(String[] args) throws Exception {
+        String url = stringArg(args, "--url=", "jdbc:mysql://localhost:3306/training_coupon");
+        String user = stringArg(args, "--user=", "root");
+        String password = stringArg(args, "--password=", "password");
+        int seconds = Integer.parseInt(stringArg(args, "--seconds=", "10"));
+        int[] threadCounts = Arrays.stream(stringArg(args, "--threads=", "1,8,32").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim()))
+                .toArray();
+        String[] terms = stringArg(args, "--terms=", DEFAULT_TERMS).split(",");
+        category = stringArg(args, "--category=", "Development");
+        minRating = stringArg(args, "--min-rating=", "4");
+
+        System.out.printf("==== Search load benchmark: %d s warm-up + %d s measured per case, %d terms, %s ====%n",
+                seconds, seconds, terms.length, url);
+        System.out.printf("%-10s %8s %10s %10s %10s %10s %10s%n",
+                "mode", "threads", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (int threads : threadCounts) {
+            run("like", threads, seconds, url, user, password, terms);
+            run("fulltext", threads, seconds, url, user, password, terms);
+            run("filtered", threads, seconds, url, user, password, terms);
+        }
+    }
+
+    private static void run(String mode, int threads, int seconds, String url, String user, String password,
+                            String[] terms) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int offset = i;
+                workers.add(pool.submit(worker(mode, seconds, url, user, password, terms, offset)));
+            }
+            List<long[]> perWorker = new ArrayList<>();
+            int total = 0;
+            for (Future<long[]> worker : workers) {
+                long[] latencies = worker.get();
+                perWorker.add(latencies);
+                total += latencies.length;
+            }
+            long[] latencies = new long[total];
+            int position = 0;
+            for (long[] worker : perWorker) {
+                System.arraycopy(worker, 0, latencies, position, worker.length);
+                position += worker.length;
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", mode, threads,
+                    latencies.length / (double) seconds,
+                    percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.95),
+                    percentileMillis(latencies, 0.99), percentileMillis(latencies, 1.0));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return latencies in nanoseconds of the requests completed during the measured period
+     */
+    private static Callable<long[]> worker(String mode, int seconds, String url, String user, String password,
+                                           String[] terms, int offset) {
+        return () -> {
+            try (Connection connection = DriverManager.getConnection(url, user, password)) {
+                int next = offset;
+                long warmupEnd = System.nanoTime() + seconds * 1_000_000_000L;
+                while (System.nanoTime() < warmupEnd) {
+                    search(connection, mode, terms[next++ % terms.length]);
+                }
+                long[] latencies = new long[1024];
+                int count = 0;
+                long measuredEnd = System.nanoTime() + seconds * 1_000_000_000L;
+                while (System.nanoTime() < measuredEnd) {
+                    long start = System.nanoTime();
+                    search(connection, mode, terms[next++ % terms.length]);
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }
+        };
+    }
+
+    /**
+     * One API search: the page plus the total count.
+     */
+    private static void search(Connection connection, String mode, String term) throws SQLException {
+        if ("like".equals(mode)) {
+            String pattern = "%" + term + "%";
+            drain(connection, LIKE_PAGE_SQL, pattern, pattern, pattern);
+            drain(connection, LIKE_COUNT_SQL, pattern, pattern, pattern);
+        } else if ("fulltext".equals(mode)) {
+            drain(connection, FULLTEXT_PAGE_SQL, term, term);
+            drain(connection, FULLTEXT_COUNT_SQL, term);
+        } else {
+            drain(connection, FILTERED_PAGE_SQL, term, minRating, category + "%", term);
+            drain(connection, FILTERED_COUNT_SQL, term, minRating, category + "%");
+        }
+    }
+
+    private static void drain(Connection connection, String sql, String... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getObject(1);
+                }
+            }
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000d;
+    }
+
+    private static String stringArg(String[] args, String prefix, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -18,7 +18,12 @@ java {
 dependencies {
     api("org.springframework.boot:spring-boot-starter-data-jpa")
     api("org.springframework.boot:spring-boot-starter-data-redis")
+    api("io.micrometer:micrometer-core")
     implementation("org.jsoup:jsoup:1.15.4")
+    implementation("com.fasterxml.jackson.core:jackson-core")
+    implementation("com.fasterxml.jackson.core:jackson-annotations")
     api("org.json:json:20231013")
+
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
 }
 
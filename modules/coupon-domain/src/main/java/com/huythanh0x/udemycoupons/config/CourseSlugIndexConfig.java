@@ -0,0 +1,22 @@
+package com.huythanh0x.udemycoupons.config;
+
+import com.huythanh0x.udemycoupons.repository.CourseSlugRepository;
+import com.huythanh0x.udemycoupons.service.CourseSlugIndex;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the course slug index as a bean and as the singleton used by UdemyCouponCourseExtractor.
+ * The index is registered as a MeterBinder so Actuator exports its hit/miss counters.
+ */
+@Configuration
+public class CourseSlugIndexConfig {
+
+    @Bean
+    public CourseSlugIndex courseSlugIndex(CourseSlugRepository courseSlugRepository) {
+        CourseSlugIndex index = new CourseSlugIndex(courseSlugRepository);
+        // Set singleton instance for static access from UdemyCouponCourseExtractor
+        CourseSlugIndex.setInstance(index);
+        return index;
+    }
+}
@@ -0,0 +1,18 @@
+package com.huythanh0x.udemycoupons.config;
+
+import com.huythanh0x.udemycoupons.utils.ExecutorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the executor strategy selected by {@code custom.executor-mode} (platform or virtual).
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Bean
+    public ExecutorFactory executorFactory(@Value("${custom.executor-mode:platform}") String executorMode) {
+        return new ExecutorFactory(executorMode);
+    }
+}
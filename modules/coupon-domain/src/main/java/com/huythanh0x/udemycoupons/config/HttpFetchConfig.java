@@ -0,0 +1,77 @@
+package com.huythanh0x.udemycoupons.config;
+
+import com.huythanh0x.udemycoupons.crawler_runner.fetcher.AdaptiveRateLimiter;
+import com.huythanh0x.udemycoupons.crawler_runner.fetcher.HttpFetchEngine;
+import com.huythanh0x.udemycoupons.utils.ExecutorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Configures the shared HTTP fetch engine used for all upstream requests.
+ * The engine is registered as a MeterBinder so Actuator exports its pool metrics.
+ */
+@Configuration
+public class HttpFetchConfig {
+
+    @Value("${custom.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${custom.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${custom.http.max-concurrent-per-host:0}")
+    private int maxConcurrentPerHost;
+
+    @Value("${custom.http.rate-limit.initial-per-second:0}")
+    private double rateLimitInitialPerSecond;
+
+    @Value("${custom.http.rate-limit.min-per-second:1}")
+    private double rateLimitMinPerSecond;
+
+    @Value("${custom.http.rate-limit.max-per-second:50}")
+    private double rateLimitMaxPerSecond;
+
+    @Value("${custom.http.rate-limit.burst:10}")
+    private double rateLimitBurst;
+
+    @Value("${custom.http.rate-limit.increase-step:0.1}")
+    private double rateLimitIncreaseStep;
+
+    @Value("${custom.http.rate-limit.decrease-factor:0.5}")
+    private double rateLimitDecreaseFactor;
+
+    @Value("${custom.http.rate-limit.decrease-cooldown-ms:1000}")
+    private long rateLimitDecreaseCooldownMs;
+
+    @Value("${custom.http.rate-limit.max-pause-ms:300000}")
+    private long rateLimitMaxPauseMs;
+
+    @Bean
+    public HttpFetchEngine httpFetchEngine(ExecutorFactory executorFactory) {
+        // In virtual mode the clients' async callbacks also run on virtual threads instead of a cached platform pool
+        Executor clientExecutor = executorFactory.isVirtual() ? executorFactory.newExecutor("http-fetch", 0) : null;
+        HttpFetchEngine engine = new HttpFetchEngine(
+                Duration.ofMillis(connectTimeoutMs),
+                Duration.ofMillis(readTimeoutMs),
+                maxConcurrentPerHost,
+                clientExecutor,
+                new AdaptiveRateLimiter.Settings(
+                        rateLimitInitialPerSecond,
+                        rateLimitMinPerSecond,
+                        rateLimitMaxPerSecond,
+                        rateLimitBurst,
+                        rateLimitIncreaseStep,
+                        rateLimitDecreaseFactor,
+                        Duration.ofMillis(rateLimitDecreaseCooldownMs),
+                        Duration.ofMillis(rateLimitMaxPauseMs)
+                )
+        );
+        // Set shared instance for static access from WebContentFetcher
+        HttpFetchEngine.setInstance(engine);
+        return engine;
+    }
+}
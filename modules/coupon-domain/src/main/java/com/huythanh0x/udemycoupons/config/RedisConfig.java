@@ -1,5 +1,6 @@
 package com.huythanh0x.udemycoupons.config;
 
+import com.huythanh0x.udemycoupons.service.CourseMetadataCache;
 import com.huythanh0x.udemycoupons.service.RedisService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -12,6 +13,8 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 /**
  * Redis configuration for the application.
  * Only enabled when spring.data.redis.host is configured.
@@ -28,6 +31,9 @@ public class RedisConfig {
     
     @Value("${spring.data.redis.password:}")
     private String redisPassword;
+
+    @Value("${custom.course-metadata-ttl-hours:24}")
+    private long courseMetadataTtlHours;
     
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
@@ -59,5 +65,12 @@ public class RedisConfig {
         RedisService.setInstance(service);
         return service;
     }
+    
+    @Bean
+    public CourseMetadataCache courseMetadataCache(RedisService redisService) {
+        CourseMetadataCache cache = new CourseMetadataCache(redisService, Duration.ofHours(courseMetadataTtlHours));
+        // Set singleton instance for static access from UdemyCouponCourseExtractor
+        CourseMetadataCache.setInstance(cache);
+        return cache;
+    }
 }
-
@@ -4,10 +4,10 @@ import com.huythanh0x.udemycoupons.crawler_runner.fetcher.WebContentFetcher;
 import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
 import com.huythanh0x.udemycoupons.model.coupon.CouponJsonData;
 import com.huythanh0x.udemycoupons.model.coupon.CourseJsonData;
+import com.huythanh0x.udemycoupons.service.CourseMetadataCache;
+import com.huythanh0x.udemycoupons.service.CourseSlugIndex;
+import com.huythanh0x.udemycoupons.utils.JsonPathCollector;
 import com.huythanh0x.udemycoupons.utils.UrlUtils;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import org.jsoup.nodes.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,12 +15,52 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * A class that extracts Udemy coupon course data from the provided coupon URL.
+ * <p>
+ * API responses are not parsed into a DOM: only the fields listed in {@link #COUPON_FIELDS} and
+ * {@link #COURSE_FIELDS} are stream-extracted, and reading stops once all of them were seen or are known to be
+ * absent.
  */
 public class UdemyCouponCourseExtractor {
     private static final Logger log = LoggerFactory.getLogger(UdemyCouponCourseExtractor.class);
+
+    /**
+     * Fields read from the coupon (course-landing-components) API response. Reading stops once the pricing and
+     * sidebar components have been read; {@code detail} only appears in error payloads, which are small, so it is
+     * optional rather than holding the parser until the end of every valid response.
+     */
+    public static final JsonPathCollector COUPON_FIELDS = JsonPathCollector.of(
+            "price_text.data.pricing_result.price.amount",
+            "price_text.data.pricing_result.campaign.end_time",
+            "price_text.data.pricing_result.campaign.uses_remaining",
+            "sidebar_container.componentProps.introductionAsset.images.image_750x422",
+            "sidebar_container.componentProps.introductionAsset.course_preview_path"
+    ).withOptional("detail");
+
+    /**
+     * Fields read from the course API response.
+     */
+    public static final JsonPathCollector COURSE_FIELDS = JsonPathCollector.of(
+            "title",
+            "headline",
+            "description",
+            "visible_instructors[0].title",
+            "primary_category.title",
+            "primary_sub_category.title",
+            "locale.simple_english_title",
+            "instructional_level",
+            "num_subscribers",
+            "avg_rating_recent",
+            "num_reviews",
+            "estimated_content_length"
+    );
+
     private final String couponUrl;
     private int courseId = 0;
     private String couponCode = "";
@@ -60,47 +100,52 @@ public class UdemyCouponCourseExtractor {
     }
 
     /**
-     * Extracts the course ID from the HTML document retrieved from a given coupon URL.
+     * Creates an extractor without blocking on the coupon page: the courseId comes from the
+     * {@link CourseSlugIndex} when the course is known, otherwise the page is fetched asynchronously
+     * and scanned for the courseId as the body arrives.
+     *
+     * @param couponUrl The coupon URL to extract data from
+     * @return a future completing with the extractor (courseId is -1 if it could not be resolved)
+     */
+    public static CompletableFuture<UdemyCouponCourseExtractor> createAsync(String couponUrl) {
+        Integer indexedCourseId = findIndexedCourseId(couponUrl);
+        if (indexedCourseId != null) {
+            return CompletableFuture.completedFuture(new UdemyCouponCourseExtractor(couponUrl, indexedCourseId));
+        }
+        return WebContentFetcher.getCourseIdFromAsync(couponUrl).thenApply(courseId -> {
+            if (courseId <= 0) {
+                log.warn("Course id not found in HTML for {}", couponUrl);
+                courseId = -1;
+            }
+            return new UdemyCouponCourseExtractor(couponUrl, courseId);
+        });
+    }
+
+    /**
+     * Extracts the course ID, from the {@link CourseSlugIndex} when the course is already known,
+     * otherwise from the coupon page retrieved from the coupon URL.
      *
      * Udemy embeds the courseId inside a native deeplink string, e.g.:
-     * {@code udemy://discover?courseId=6643369}
+     * {@code udemy://discover?courseId=6643369}. The page is scanned while it downloads and the
+     * download is aborted right after the id (see {@link WebContentFetcher#getCourseIdFrom(String)}).
      */
     private int extractCourseId() {
-        Document document = new WebContentFetcher().getHtmlDocumentFrom(couponUrl);
-        if (document == null || document.body() == null) {
-            log.warn("Unable to load document for coupon URL {}", couponUrl);
-            return -1;
-        }
+        Integer indexedCourseId = findIndexedCourseId(couponUrl);
+        if (indexedCourseId != null) return indexedCourseId;
 
-        String html = document.html();
-        int idFromDiscover = extractCourseIdFromDiscoverDeeplink(html);
-        if (idFromDiscover > 0) return idFromDiscover;
+        int courseId = WebContentFetcher.getCourseIdFrom(couponUrl);
+        if (courseId > 0) return courseId;
 
         log.warn("Course id not found in HTML for {}", couponUrl);
         return -1;
     }
 
-    private int extractCourseIdFromDiscoverDeeplink(String html) {
-        if (html == null || html.isEmpty()) return -1;
-
-        String token = "udemy://discover?courseId=";
-        int idx = html.indexOf(token);
-        if (idx < 0) return -1;
-
-        int start = idx + token.length();
-        if (start >= html.length()) return -1;
-
-        int end = start;
-        while (end < html.length() && Character.isDigit(html.charAt(end))) {
-            end++;
-        }
-
-        if (end <= start) return -1;
-
+    private static Integer findIndexedCourseId(String couponUrl) {
         try {
-            return Integer.parseInt(html.substring(start, end));
-        } catch (Exception ignored) {
-            return -1;
+            return CourseSlugIndex.getInstance().findCourseId(couponUrl);
+        } catch (IllegalStateException e) {
+            // Index not available (running outside Spring), resolve from the page
+            return null;
         }
     }
 
@@ -124,61 +169,143 @@ public class UdemyCouponCourseExtractor {
 
     /**
      * Retrieves full coupon code data for a specific course.
-     * Makes API calls to extract coupon data and course data from official APIs.
+     * Course metadata comes from {@link CourseMetadataCache} when present; on a miss the course API request is
+     * started in the background before the coupon API is read on the calling thread, so both run concurrently.
+     * If the coupon turns out not to be free (or the coupon API answers {@code detail: Not found}) the course
+     * request is cancelled, since its result would be discarded anyway.
      * Combines the extracted data to create a CouponCourseData object.
      *
      * @return CouponCourseData object containing both coupon data and course data
      */
     public CouponCourseData getFullCouponCodeData() {
-        JSONObject couponJson = WebContentFetcher.getJsonObjectFrom(UrlUtils.getCouponAPI(courseId, couponCode));
-        JSONObject courseJson = WebContentFetcher.getJsonObjectFrom(UrlUtils.getCourseAPI(courseId));
+        CourseJsonData cachedCourseData = loadCachedCourseData();
+        CompletableFuture<Map<String, String>> courseRequest = cachedCourseData == null
+                ? WebContentFetcher.getJsonFieldsFromAsync(UrlUtils.getCourseAPI(courseId), COURSE_FIELDS)
+                : null;
+
+        CouponJsonData couponDataResult;
+        try {
+            Map<String, String> couponFields =
+                    WebContentFetcher.getJsonFieldsFrom(UrlUtils.getCouponAPI(courseId, couponCode), COUPON_FIELDS);
+            couponDataResult = extractDataCouponFromOfficialAPI(couponFields);
+        } catch (RuntimeException e) {
+            cancel(courseRequest);
+            throw e;
+        }
+        if (couponDataResult == null || couponDataResult.getPrice() != 0f) {
+            cancel(courseRequest);
+            return null;
+        }
 
-        CouponJsonData couponDataResult = extractDataCouponFromOfficialAPI(couponJson);
-        CourseJsonData courseDataResult = extractCourseDataFromOfficialAPI(courseJson);
+        CourseJsonData courseDataResult = cachedCourseData;
+        if (courseDataResult == null) {
+            courseDataResult = extractCourseDataFromOfficialAPI(awaitCourseFields(courseRequest));
+            cacheCourseData(courseDataResult);
+        }
         return combineCourseAndCouponData(couponDataResult, courseDataResult);
     }
 
     /**
-     * Extracts course data from the provided JSONObject representing a course object in an official API response.
+     * Asynchronous counterpart of {@link #getFullCouponCodeData()}.
+     * On a course-metadata cache hit only the coupon API is called; on a miss the coupon and course API
+     * calls are issued concurrently, and the course call is cancelled as soon as the coupon response shows
+     * the coupon is not free.
      *
-     * @param courseObjectJson the JSONObject containing course data
-     * @return CourseJsonData object with extracted course information
+     * @return a future completing with the combined data, or with null if the coupon is not free or a call failed
      */
-    private CourseJsonData extractCourseDataFromOfficialAPI(JSONObject courseObjectJson) {
-        if (courseObjectJson == null) return null;
-
-        String author = "Unknown";
-        String category = "Unknown";
-        String subCategory = "Unknown";
-
-        String title = courseObjectJson.optString("title", "");
-        String headline = courseObjectJson.optString("headline", "");
-        String description = courseObjectJson.optString("description", "").trim().replace("\n", "");
-        JSONArray visibleInstructors = courseObjectJson.optJSONArray("visible_instructors");
-        if (visibleInstructors != null && !visibleInstructors.isEmpty()) {
-            JSONObject instructor = visibleInstructors.optJSONObject(0);
-            if (instructor != null) {
-                author = instructor.optString("title", "Unknown");
+    public CompletableFuture<CouponCourseData> getFullCouponCodeDataAsync() {
+        CompletableFuture<CouponJsonData> couponFuture = WebContentFetcher
+                .getJsonFieldsFromAsync(UrlUtils.getCouponAPI(courseId, couponCode), COUPON_FIELDS)
+                .thenApply(this::extractDataCouponFromOfficialAPI);
+        CourseJsonData cachedCourseData = loadCachedCourseData();
+        if (cachedCourseData != null) {
+            return couponFuture.thenApply(couponData -> combineCourseAndCouponData(couponData, cachedCourseData));
+        }
+
+        CompletableFuture<Map<String, String>> courseRequest =
+                WebContentFetcher.getJsonFieldsFromAsync(UrlUtils.getCourseAPI(courseId), COURSE_FIELDS);
+        return couponFuture.thenCompose(couponData -> {
+            if (couponData == null || couponData.getPrice() != 0f) {
+                cancel(courseRequest);
+                return CompletableFuture.completedFuture(null);
             }
+            return courseRequest.thenApply(courseFields -> {
+                CourseJsonData courseData = extractCourseDataFromOfficialAPI(courseFields);
+                cacheCourseData(courseData);
+                return combineCourseAndCouponData(couponData, courseData);
+            });
+        });
+    }
+
+    private static void cancel(CompletableFuture<?> request) {
+        if (request != null) {
+            request.cancel(true);
         }
-        JSONObject primaryCategory = courseObjectJson.optJSONObject("primary_category");
-        if (primaryCategory != null) {
-            category = primaryCategory.optString("title", "Unknown");
+    }
+
+    /**
+     * Waits for the background course API request of {@link #getFullCouponCodeData()}.
+     *
+     * @return the course fields, or null if the request failed or the thread was interrupted
+     */
+    private Map<String, String> awaitCourseFields(CompletableFuture<Map<String, String>> courseRequest) {
+        try {
+            return courseRequest.get();
+        } catch (InterruptedException e) {
+            courseRequest.cancel(true);
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for course API of {}", couponUrl);
+        } catch (ExecutionException | CancellationException e) {
+            log.warn("Course API request failed for {}: {}", couponUrl, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Reads course metadata from the shared cache.
+     *
+     * @return cached metadata, or null on a miss or when the cache is not available (e.g. debug tools)
+     */
+    private CourseJsonData loadCachedCourseData() {
+        if (courseId <= 0) return null;
+        try {
+            return CourseMetadataCache.getInstance().get(courseId);
+        } catch (IllegalStateException e) {
+            return null;
         }
-        JSONObject primarySubCategory = courseObjectJson.optJSONObject("primary_sub_category");
-        if (primarySubCategory != null) {
-            subCategory = primarySubCategory.optString("title", "Unknown");
+    }
+
+    private void cacheCourseData(CourseJsonData courseData) {
+        if (courseData == null || courseId <= 0) return;
+        try {
+            CourseMetadataCache.getInstance().put(courseId, courseData);
+        } catch (IllegalStateException e) {
+            // Cache not available (running outside Spring), nothing to store
         }
-        JSONObject localeObj = courseObjectJson.optJSONObject("locale");
-        String language = (localeObj != null)
-                ? localeObj.optString("simple_english_title", "")
-                : "";
-        String instructionalLevel = courseObjectJson.optString("instructional_level", "");
+    }
+
+    /**
+     * Builds course data from the {@link #COURSE_FIELDS} values of a course API response.
+     *
+     * @param courseFields extracted values by path
+     * @return CourseJsonData object with extracted course information
+     */
+    private CourseJsonData extractCourseDataFromOfficialAPI(Map<String, String> courseFields) {
+        if (courseFields == null) return null;
+
+        String title = courseFields.getOrDefault("title", "");
+        String headline = courseFields.getOrDefault("headline", "");
+        String description = courseFields.getOrDefault("description", "").trim().replace("\n", "");
+        String author = courseFields.getOrDefault("visible_instructors[0].title", "Unknown");
+        String category = courseFields.getOrDefault("primary_category.title", "Unknown");
+        String subCategory = courseFields.getOrDefault("primary_sub_category.title", "Unknown");
+        String language = courseFields.getOrDefault("locale.simple_english_title", "");
+        String instructionalLevel = courseFields.getOrDefault("instructional_level", "");
         String level = instructionalLevel.contains("Levels") ? instructionalLevel : instructionalLevel.replace(" Level", "");
-        int students = courseObjectJson.optInt("num_subscribers", 0);
-        float rating = courseObjectJson.optFloat("avg_rating_recent", 0.0f);
-        int numberReviews = courseObjectJson.optInt("num_reviews", 0);
-        int contentLength = courseObjectJson.optInt("estimated_content_length", 0);
+        int students = parseInt(courseFields.get("num_subscribers"), 0);
+        float rating = parseFloat(courseFields.get("avg_rating_recent"), 0.0f);
+        int numberReviews = parseInt(courseFields.get("num_reviews"), 0);
+        int contentLength = parseInt(courseFields.get("estimated_content_length"), 0);
 
         return new CourseJsonData(
                 category, subCategory, title, level, author, contentLength, rating, numberReviews, students,
@@ -187,37 +314,23 @@ public class UdemyCouponCourseExtractor {
     }
 
     /**
-     * Extracts data from the given coupon JSON object retrieved from the official API.
+     * Builds coupon data from the {@link #COUPON_FIELDS} values of a coupon API response.
      *
-     * @param couponJsonObject JSON object containing coupon data
-     * @return CouponJsonData object with extracted data
+     * @param couponFields extracted values by path
+     * @return CouponJsonData object with extracted data, or null if the response has no price
      */
-    private CouponJsonData extractDataCouponFromOfficialAPI(JSONObject couponJsonObject) {
-        if (couponJsonObject == null) return null;
+    private CouponJsonData extractDataCouponFromOfficialAPI(Map<String, String> couponFields) {
+        if (couponFields == null) return null;
 
         // Udemy now sometimes returns payloads like: {"detail":"Not found"}
-        String detail = couponJsonObject.optString("detail", null);
-        if (detail != null) {
+        if (couponFields.containsKey("detail")) {
             return null;
         }
 
-        JSONObject priceTextObj = couponJsonObject.optJSONObject("price_text");
-        if (priceTextObj == null) return null;
-
-        JSONObject dataObj = priceTextObj.optJSONObject("data");
-        if (dataObj == null) return null;
-
-        JSONObject pricingResultObj = dataObj.optJSONObject("pricing_result");
-        if (pricingResultObj == null) return null;
-
-        JSONObject priceObj = pricingResultObj.optJSONObject("price");
-        if (priceObj == null) return null;
-
-        float price = priceObj.optFloat("amount", Float.NaN);
+        float price = parseFloat(couponFields.get("price_text.data.pricing_result.price.amount"), Float.NaN);
         if (Float.isNaN(price)) return null;
 
-        JSONObject campaignObj = pricingResultObj.optJSONObject("campaign");
-        String expiredDateStr = (campaignObj != null) ? campaignObj.optString("end_time", null) : null;
+        String expiredDateStr = couponFields.get("price_text.data.pricing_result.campaign.end_time");
         Instant expiredDate;
         try {
             expiredDate = parseExpiredDate(expiredDateStr);
@@ -226,25 +339,30 @@ public class UdemyCouponCourseExtractor {
             expiredDate = Instant.parse("2030-05-19T17:24:00Z");
         }
 
-        String previewImage = "";
-        String previewVideo = "";
-        JSONObject sidebarContainerObj = couponJsonObject.optJSONObject("sidebar_container");
-        if (sidebarContainerObj != null) {
-            JSONObject componentPropsObj = sidebarContainerObj.optJSONObject("componentProps");
-            if (componentPropsObj != null) {
-                JSONObject introductionAssetObj = componentPropsObj.optJSONObject("introductionAsset");
-                if (introductionAssetObj != null) {
-                    JSONObject imagesObj = introductionAssetObj.optJSONObject("images");
-                    if (imagesObj != null) {
-                        previewImage = imagesObj.optString("image_750x422", "");
-                    }
-                    previewVideo = introductionAssetObj.optString("course_preview_path", "");
-                }
-            }
+        String previewImage = couponFields.getOrDefault(
+                "sidebar_container.componentProps.introductionAsset.images.image_750x422", "");
+        String previewVideo = couponFields.getOrDefault(
+                "sidebar_container.componentProps.introductionAsset.course_preview_path", "");
+        int usesRemaining = parseInt(couponFields.get("price_text.data.pricing_result.campaign.uses_remaining"), 0);
+        return new CouponJsonData(price, expiredDate, previewImage, previewVideo, usesRemaining);
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) return defaultValue;
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
         }
+    }
 
-        int usesRemaining = (campaignObj != null) ? campaignObj.optInt("uses_remaining", 0) : 0;
-        return new CouponJsonData(price, expiredDate, previewImage, previewVideo, usesRemaining);
+    private static float parseFloat(String value, float defaultValue) {
+        if (value == null) return defaultValue;
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 
     /**
@@ -1,12 +1,16 @@
 package com.huythanh0x.udemycoupons.crawler_runner.base;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * This class is an abstract base class for coupon url crawlers.
  * It contains a field storing the API URL used for crawling.
  * <p>
  * Child classes must implement the getAllCouponUrls method to retrieve a list of coupon URLs.
+ * Crawlers that discover URLs incrementally should also override {@link #crawlCouponUrls(Consumer)}
+ * so that consumers can start working on the first URL before the crawl has finished. Sources with a
+ * fetch-then-follow structure (list pages, then detail pages) can run the second step in a {@link CrawlerStage}.
  */
 public abstract class CouponUrlCrawlerBase {
     String apiUrl;
@@ -18,4 +22,22 @@ public abstract class CouponUrlCrawlerBase {
      * @return a list of strings representing all coupon URLs
      */
     public abstract List<String> getAllCouponUrls();
+
+    /**
+     * Streams coupon URLs to the given sink as they are discovered, returning once the crawl is finished.
+     * The sink may be called from several crawler threads concurrently and must be thread-safe.
+     * The default implementation crawls everything first and then emits the list.
+     *
+     * @param sink receives each discovered coupon URL
+     */
+    public void crawlCouponUrls(Consumer<String> sink) {
+        getAllCouponUrls().forEach(sink);
+    }
+
+    /**
+     * @return short name of the source, used in logs and metric tags
+     */
+    public String getSourceName() {
+        return getClass().getSimpleName();
+    }
 }
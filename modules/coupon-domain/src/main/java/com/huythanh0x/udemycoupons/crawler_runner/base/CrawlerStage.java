@@ -0,0 +1,242 @@
+package com.huythanh0x.udemycoupons.crawler_runner.base;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded producer/consumer stage for crawler sources: producers {@link #submit} items into a bounded queue
+ * and a fixed number of workers hand each item to the handler.
+ * <p>
+ * Workers block on the queue instead of polling, and exit on a poison pill once the coordinator calls
+ * {@link #complete()}. A full queue blocks producers (back-pressure); capacity is counted in permits rather than
+ * queue slots, so poison pills never wait for space. {@link #stop()} ends the stage early, e.g. when a quota is
+ * reached (the handler returns false): producers are refused from then on, queued items are dropped (pills already
+ * queued by {@link #complete()} are kept) and every worker gets a pill, so the stage drains without any timeout
+ * whether it was completed before or after.
+ * <p>
+ * Typical use:
+ * <pre>
+ * CrawlerStage&lt;String&gt; stage = new CrawlerStage&lt;&gt;(workers, capacity, this::handle, metrics);
+ * stage.start(executor);
+ * // producers: stage.submit(item) until it returns false
+ * stage.complete();
+ * stage.awaitCompletion();
+ * </pre>
+ *
+ * @param <T> item type
+ */
+public final class CrawlerStage<T> {
+    private static final Logger log = LoggerFactory.getLogger(CrawlerStage.class);
+    private static final Object POISON_PILL = new Object();
+
+    /**
+     * Processes one item on a worker thread.
+     */
+    @FunctionalInterface
+    public interface Handler<T> {
+        /**
+         * @param item item to process
+         * @return false to {@link #stop()} the stage, e.g. because a quota was reached
+         * @throws Exception logged by the stage; the worker moves on to the next item
+         */
+        boolean handle(T item) throws Exception;
+    }
+
+    private final int workers;
+    // Unbounded so pills can always be queued; items are bounded by the permits
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final Handler<T> handler;
+    private final Metrics metrics;
+    private final CountDownLatch workersDone;
+    private volatile boolean stopped;
+    private volatile boolean completed;
+
+    /**
+     * @param workers  number of concurrent workers
+     * @param capacity maximum number of queued items before producers block
+     * @param handler  processes each item; exceptions are logged and do not stop the worker
+     * @param metrics  long-lived meters of this stage
+     */
+    public CrawlerStage(int workers, int capacity, Handler<T> handler, Metrics metrics) {
+        this.workers = Math.max(1, workers);
+        this.permits = new Semaphore(Math.max(1, capacity));
+        this.handler = handler;
+        this.metrics = metrics;
+        this.workersDone = new CountDownLatch(this.workers);
+    }
+
+    /**
+     * Starts the workers on the given executor.
+     *
+     * @param executor runs one long task per worker
+     */
+    public void start(Executor executor) {
+        metrics.attach(queue);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::runWorker);
+        }
+    }
+
+    /**
+     * Queues an item, blocking while the queue is full.
+     *
+     * @param item item to process
+     * @return false if the stage was stopped or completed and the item was not accepted
+     * @throws InterruptedException if interrupted while waiting for queue space
+     */
+    public boolean submit(T item) throws InterruptedException {
+        if (stopped || completed) {
+            return false;
+        }
+        permits.acquire();
+        if (stopped) {
+            permits.release();
+            return false;
+        }
+        queue.put(item);
+        return !stopped;
+    }
+
+    /**
+     * Signals that every producer is done; workers exit once the items queued before are handled.
+     * Must be called by the coordinating thread after the producers have returned, also after {@link #stop()}.
+     *
+     * @throws InterruptedException if interrupted while queueing the poison pills (the queue is unbounded, so
+     *                              this does not wait)
+     */
+    public void complete() throws InterruptedException {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        for (int i = 0; i < workers; i++) {
+            queue.put(POISON_PILL);
+        }
+    }
+
+    /**
+     * Ends the stage early: refuses new items, drops queued ones and makes workers skip anything still arriving
+     * from producers that were already blocked in {@link #submit}. Safe to call from a worker.
+     */
+    public void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        List<Object> drained = new ArrayList<>();
+        queue.drainTo(drained);
+        int dropped = 0;
+        for (Object next : drained) {
+            if (next == POISON_PILL) {
+                // Pills of complete() must survive, or workers that already passed them would wait forever
+                queue.add(next);
+            } else {
+                dropped++;
+            }
+        }
+        // Unblocks producers waiting for capacity; they see the stage stopped and give up
+        permits.release(dropped);
+        for (int i = 0; i < workers; i++) {
+            queue.add(POISON_PILL);
+        }
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Waits until every worker has exited. {@link #complete()} or {@link #stop()} must be called first.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitCompletion() throws InterruptedException {
+        workersDone.await();
+    }
+
+    private void runWorker() {
+        try {
+            while (true) {
+                long idleStart = System.nanoTime();
+                Object next = queue.take();
+                metrics.idle.record(System.nanoTime() - idleStart, TimeUnit.NANOSECONDS);
+                if (next == POISON_PILL) {
+                    return;
+                }
+                permits.release();
+                if (stopped) {
+                    continue;
+                }
+                @SuppressWarnings("unchecked")
+                T item = (T) next;
+                try {
+                    boolean proceed = handler.handle(item);
+                    metrics.processed.increment();
+                    if (!proceed) {
+                        stop();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.warn("Stage {} failed to process {}: {}", metrics.name, item, e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Stage {} worker interrupted", metrics.name);
+        } finally {
+            workersDone.countDown();
+        }
+    }
+
+    /**
+     * Meters of a stage, registered once and shared by the stage instance of every round:
+     * {@code crawler.stage.queue.depth}, {@code crawler.stage.idle} (time workers spent waiting for items)
+     * and {@code crawler.stage.processed}, all tagged with the stage name.
+     */
+    public static final class Metrics {
+        private final String name;
+        private final AtomicReference<BlockingQueue<?>> currentQueue = new AtomicReference<>();
+        private final Timer idle;
+        private final Counter processed;
+
+        public Metrics(MeterRegistry meterRegistry, String name) {
+            this.name = name;
+            Gauge.builder("crawler.stage.queue.depth", currentQueue, ref -> {
+                        BlockingQueue<?> queue = ref.get();
+                        return queue == null ? 0 : queue.size();
+                    })
+                    .description("Items waiting in a crawler stage queue")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+            this.idle = Timer.builder("crawler.stage.idle")
+                    .description("Time crawler stage workers spent waiting for an item")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+            this.processed = Counter.builder("crawler.stage.processed")
+                    .description("Items processed by a crawler stage")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+        }
+
+        void attach(BlockingQueue<?> queue) {
+            currentQueue.set(queue);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.huythanh0x.udemycoupons.crawler_runner.base;
+
+/**
+ * Compact in-memory index from scraped URL to coupon URL, built once per crawl round from
+ * {@code scraped_url_mapping}.
+ * <p>
+ * Scraped URLs are not kept: each one is reduced to a 64-bit hash stored in an open-addressing table
+ * (linear probing, load factor at most 0.5) next to the coupon URL it maps to. With a few thousand rows the
+ * chance of two scraped URLs sharing a hash is negligible, and a collision would only cause one coupon URL to be
+ * validated needlessly.
+ * <p>
+ * Not thread-safe while being filled. Once filled and safely published (e.g. before tasks are submitted to an
+ * executor), any number of threads may call {@link #get(String)} concurrently.
+ */
+public final class ScrapedUrlIndex {
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private String[] couponUrls;
+    private int size;
+    private long couponUrlBytes;
+
+    /**
+     * @param expectedSize number of mappings expected; the table grows when more are added
+     */
+    public ScrapedUrlIndex(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds or replaces a mapping. Must not be called concurrently with any other method.
+     *
+     * @param scrapedUrl source page URL
+     * @param couponUrl  Udemy coupon URL it maps to
+     */
+    public void put(String scrapedUrl, String couponUrl) {
+        if (scrapedUrl == null || couponUrl == null) {
+            return;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        insert(hash64(scrapedUrl), couponUrl);
+    }
+
+    /**
+     * @param scrapedUrl source page URL
+     * @return the coupon URL for the scraped URL, or null if unknown
+     */
+    public String get(String scrapedUrl) {
+        if (scrapedUrl == null) {
+            return null;
+        }
+        long key = hash64(scrapedUrl);
+        int mask = keys.length - 1;
+        for (int slot = (int) key & mask; ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return couponUrls[slot];
+            }
+            if (current == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Approximate retained size: the two tables plus the coupon URL strings, assuming compressed oops and
+     * compact (Latin-1) strings.
+     *
+     * @return estimated heap bytes
+     */
+    public long estimatedBytes() {
+        // long[] and String[] headers (16 each) plus 8 bytes per key and 4 per reference
+        return 32 + 12L * keys.length + couponUrlBytes;
+    }
+
+    private void insert(long key, String couponUrl) {
+        int mask = keys.length - 1;
+        for (int slot = (int) key & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                couponUrls[slot] = couponUrl;
+                size++;
+                couponUrlBytes += stringBytes(couponUrl);
+                return;
+            }
+            if (keys[slot] == key) {
+                couponUrlBytes += stringBytes(couponUrl) - stringBytes(couponUrls[slot]);
+                couponUrls[slot] = couponUrl;
+                return;
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        String[] oldCouponUrls = couponUrls;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldCouponUrls[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        couponUrls = new String[capacity];
+        size = 0;
+        couponUrlBytes = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < Math.max(expectedSize, 0) * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static long stringBytes(String value) {
+        // String object (24) + byte[] header (16) + Latin-1 content, rounded to 8 bytes
+        return 40 + ((value.length() + 7L) & ~7L);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer so the low bits used for the slot
+     * are well distributed. Zero is reserved for empty slots.
+     */
+    static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+}
@@ -0,0 +1,195 @@
+package com.huythanh0x.udemycoupons.crawler_runner.fetcher;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter for a single upstream host that adapts AIMD-style to throttling.
+ * <p>
+ * Every request takes one token; tokens refill at the current rate up to the burst size.
+ * Each successful response raises the rate additively (up to the maximum), while a 429/503 response
+ * cuts it multiplicatively (down to the minimum) and, when the upstream sends {@code Retry-After},
+ * pauses the host until that moment. Decreases are applied at most once per cooldown so that a wave of
+ * throttled in-flight requests counts as a single congestion signal.
+ */
+public class AdaptiveRateLimiter {
+
+    /**
+     * Limiter settings shared by every host.
+     *
+     * @param initialPerSecond starting rate; zero or less disables rate limiting
+     * @param minPerSecond     floor for multiplicative decreases
+     * @param maxPerSecond     ceiling for additive increases
+     * @param burst            maximum number of tokens that can accumulate while idle
+     * @param increaseStep     requests/second added after each successful response
+     * @param decreaseFactor   rate multiplier applied on throttling (0 &lt; factor &lt; 1)
+     * @param decreaseCooldown minimum time between two decreases
+     * @param maxPause         upper bound for a {@code Retry-After} pause
+     */
+    public record Settings(double initialPerSecond, double minPerSecond, double maxPerSecond, double burst,
+                           double increaseStep, double decreaseFactor, Duration decreaseCooldown, Duration maxPause) {
+
+        public static Settings disabled() {
+            return new Settings(0, 0, 0, 0, 0, 1, Duration.ZERO, Duration.ZERO);
+        }
+
+        public boolean enabled() {
+            return initialPerSecond > 0;
+        }
+    }
+
+    private final Settings settings;
+    private final LongSupplier nanoClock;
+    private final AtomicLong throttledResponses = new AtomicLong();
+    private final AtomicLong waitedNanos = new AtomicLong();
+
+    private double ratePerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private long lastDecreaseNanos;
+    private boolean decreasedOnce;
+
+    public AdaptiveRateLimiter(Settings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    AdaptiveRateLimiter(Settings settings, LongSupplier nanoClock) {
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.ratePerSecond = settings.initialPerSecond();
+        this.tokens = Math.max(1, settings.burst());
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Blocks until the caller may send a request.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Returns a future that completes when the caller may send a request, without holding a thread meanwhile.
+     *
+     * @return a future completing once a token is available
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        long waitNanos = reserve();
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Takes a token, going into debt when none is available, and returns how long the caller must wait
+     * before sending. Reserving up front keeps the order of callers fair without a waiter queue.
+     *
+     * @return nanoseconds to wait, zero when the request may go out immediately
+     */
+    synchronized long reserve() {
+        if (!settings.enabled()) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        refill(now);
+        tokens -= 1;
+        // The bucket is not refilled before lastRefillNanos, which lies in the future during a Retry-After pause
+        long waitNanos = Math.max(0, lastRefillNanos - now);
+        if (tokens < 0) {
+            waitNanos += (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        }
+        if (waitNanos > 0) {
+            waitedNanos.addAndGet(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Additive increase after a response that was not throttled.
+     */
+    public synchronized void onSuccess() {
+        if (!settings.enabled()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        refill(now);
+        ratePerSecond = Math.min(settings.maxPerSecond(), ratePerSecond + settings.increaseStep());
+    }
+
+    /**
+     * Multiplicative decrease after a 429/503 response, plus a pause when the upstream asked for one.
+     *
+     * @param retryAfter delay requested through {@code Retry-After}, or null when absent
+     */
+    public synchronized void onThrottled(Duration retryAfter) {
+        throttledResponses.incrementAndGet();
+        if (!settings.enabled()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        refill(now);
+        if (!decreasedOnce || now - lastDecreaseNanos >= settings.decreaseCooldown().toNanos()) {
+            ratePerSecond = Math.max(settings.minPerSecond(), ratePerSecond * settings.decreaseFactor());
+            lastDecreaseNanos = now;
+            decreasedOnce = true;
+        }
+        // Drop the accumulated burst so the reduced rate takes effect immediately
+        tokens = Math.min(tokens, 0);
+        if (retryAfter != null && !retryAfter.isNegative()) {
+            long pauseNanos = Math.min(retryAfter.toNanos(), settings.maxPause().toNanos());
+            pausedUntilNanos = Math.max(pausedUntilNanos, now + pauseNanos);
+            // Requests reserved during the pause are spread out at the reduced rate once it ends
+            lastRefillNanos = Math.max(lastRefillNanos, pausedUntilNanos);
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(Math.max(1, settings.burst()),
+                    tokens + elapsed * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+            lastRefillNanos = now;
+        }
+    }
+
+    /**
+     * @return current allowed rate in requests per second, or zero when disabled
+     */
+    public synchronized double getRatePerSecond() {
+        return settings.enabled() ? ratePerSecond : 0;
+    }
+
+    /**
+     * @return seconds remaining in a {@code Retry-After} pause, zero when not paused
+     */
+    public synchronized double getPausedSeconds() {
+        long remaining = pausedUntilNanos - nanoClock.getAsLong();
+        return remaining > 0 ? remaining / (double) TimeUnit.SECONDS.toNanos(1) : 0;
+    }
+
+    /**
+     * @return number of 429/503 responses observed
+     */
+    public long getThrottledResponses() {
+        return throttledResponses.get();
+    }
+
+    /**
+     * @return total time callers were asked to wait, in seconds
+     */
+    public double getWaitedSeconds() {
+        return waitedNanos.get() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,122 @@
+package com.huythanh0x.udemycoupons.crawler_runner.fetcher;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Body subscriber that scans a coupon page for Udemy's native deeplink, e.g.
+ * {@code udemy://discover?courseId=6643369}, and cancels the download as soon as the digits after it were read.
+ * <p>
+ * The bytes are matched as they arrive (the token is ASCII, so matching raw bytes is safe for UTF-8 pages) without
+ * decoding the page into a String or building a DOM, and only one buffer list is requested at a time so nothing
+ * beyond the current chunk is held. The body completes with the course id, or with -1 when the page ended without
+ * a usable token.
+ */
+public class CourseIdBodySubscriber implements HttpResponse.BodySubscriber<Integer> {
+    static final byte[] TOKEN = "udemy://discover?courseId=".getBytes(StandardCharsets.US_ASCII);
+    // Longest prefix of TOKEN that is also a suffix of TOKEN[0..i], so a mismatch never rescans input (KMP)
+    private static final int[] FALLBACK = buildFallback(TOKEN);
+    // More digits than fit in an int means this is not a course id
+    private static final int MAX_DIGITS = 10;
+
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+    private int matched;
+    private long courseId;
+    private int digits;
+
+    /**
+     * @return a handler scanning every response with a new subscriber
+     */
+    public static HttpResponse.BodyHandler<Integer> handler() {
+        return responseInfo -> new CourseIdBodySubscriber();
+    }
+
+    @Override
+    public CompletionStage<Integer> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        if (result.isDone()) {
+            return;
+        }
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                if (scan(buffer.get())) {
+                    result.complete((int) courseId);
+                    subscription.cancel();
+                    return;
+                }
+            }
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        boolean found = matched == TOKEN.length && digits > 0 && courseId <= Integer.MAX_VALUE;
+        result.complete(found ? (int) courseId : -1);
+    }
+
+    /**
+     * Advances the matcher by one byte.
+     *
+     * @return true once the token and the complete digit run after it were read
+     */
+    boolean scan(byte b) {
+        if (matched == TOKEN.length) {
+            boolean digit = b >= '0' && b <= '9';
+            if (digit && digits < MAX_DIGITS) {
+                courseId = courseId * 10 + (b - '0');
+                digits++;
+                return false;
+            }
+            if (!digit && digits > 0 && courseId <= Integer.MAX_VALUE) {
+                return true;
+            }
+            // Token without a usable id, look for the next occurrence
+            matched = 0;
+            courseId = 0;
+            digits = 0;
+        }
+        while (matched > 0 && TOKEN[matched] != b) {
+            matched = FALLBACK[matched - 1];
+        }
+        if (TOKEN[matched] == b) {
+            matched++;
+        }
+        return false;
+    }
+
+    private static int[] buildFallback(byte[] token) {
+        int[] fallback = new int[token.length];
+        for (int i = 1, k = 0; i < token.length; i++) {
+            while (k > 0 && token[i] != token[k]) {
+                k = fallback[k - 1];
+            }
+            if (token[i] == token[k]) {
+                k++;
+            }
+            fallback[i] = k;
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,99 @@
+package com.huythanh0x.udemycoupons.crawler_runner.fetcher;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Semaphore-style limit on concurrent requests to a single upstream host.
+ * <p>
+ * Permits can be taken by blocking callers ({@link #acquire()}) and by async pipelines
+ * ({@link #acquireAsync()}), which queue without holding a thread. Because the limit is per host
+ * rather than per pool, parallelism can be raised with cheap (virtual) threads while each upstream
+ * still sees a bounded number of simultaneous requests.
+ */
+public class HostConcurrencyLimiter {
+    private final int maxConcurrent;
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int available;
+
+    /**
+     * @param maxConcurrent maximum concurrent requests; zero or negative means unlimited
+     */
+    public HostConcurrencyLimiter(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        this.available = maxConcurrent;
+    }
+
+    /**
+     * Returns a future that completes once a permit has been granted.
+     * Every completed future must be matched by a call to {@link #release()}.
+     *
+     * @return a future completing when the caller may send its request
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        if (maxConcurrent <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        synchronized (this) {
+            if (available > 0) {
+                available--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Blocks until a permit has been granted.
+     *
+     * @throws InterruptedException if interrupted while waiting; no permit is held in that case
+     */
+    public void acquire() throws InterruptedException {
+        CompletableFuture<Void> permit = acquireAsync();
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                // The permit was granted concurrently with the interrupt, hand it back.
+                release();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Permit future failed unexpectedly", e.getCause());
+        }
+    }
+
+    /**
+     * Returns a permit, handing it directly to the oldest waiter if there is one.
+     */
+    public void release() {
+        if (maxConcurrent <= 0) {
+            return;
+        }
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            do {
+                next = waiters.pollFirst();
+            } while (next != null && next.isCancelled());
+            if (next == null) {
+                available = Math.min(available + 1, maxConcurrent);
+                return;
+            }
+        }
+        if (!next.complete(null)) {
+            // Cancelled between poll and complete; pass the permit on.
+            release();
+        }
+    }
+
+    /**
+     * @return number of callers currently waiting for a permit
+     */
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+}
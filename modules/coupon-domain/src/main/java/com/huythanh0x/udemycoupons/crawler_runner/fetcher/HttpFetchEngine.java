@@ -0,0 +1,368 @@
+package com.huythanh0x.udemycoupons.crawler_runner.fetcher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Long-lived HTTP engine shared by every upstream fetch (Udemy, Enext, RealDiscount).
+ * <p>
+ * Keeps one {@link HttpClient} per upstream host so that keep-alive connections, TLS sessions and
+ * HTTP/2 multiplexing are reused across requests instead of paying a new handshake per coupon.
+ * Each host also gets a {@link HostConcurrencyLimiter}, so callers can raise their own parallelism
+ * (for example with virtual threads) without flooding a single upstream, and an
+ * {@link AdaptiveRateLimiter} that slows down when the host answers 429/503 and speeds up again while it is healthy.
+ * Exposes pool and reuse metrics through Micrometer once bound to a registry.
+ */
+public class HttpFetchEngine implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(HttpFetchEngine.class);
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(10);
+
+    private static volatile HttpFetchEngine instance;
+
+    /**
+     * Set the shared instance (used for static access from WebContentFetcher and extractors).
+     * Should be called during Spring bean initialization.
+     *
+     * @param engine the HttpFetchEngine instance
+     */
+    public static void setInstance(HttpFetchEngine engine) {
+        instance = engine;
+    }
+
+    /**
+     * Get the shared instance, creating one with default timeouts when running outside Spring
+     * (e.g. from debug tools).
+     *
+     * @return the shared HttpFetchEngine
+     */
+    public static HttpFetchEngine getInstance() {
+        HttpFetchEngine current = instance;
+        if (current == null) {
+            synchronized (HttpFetchEngine.class) {
+                if (instance == null) {
+                    instance = new HttpFetchEngine(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+                }
+                current = instance;
+            }
+        }
+        return current;
+    }
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final int maxConcurrentPerHost;
+    private final Executor clientExecutor;
+    private final AdaptiveRateLimiter.Settings rateLimitSettings;
+    private final ConcurrentMap<String, HostClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong clientsCreated = new AtomicLong();
+    private volatile MeterRegistry meterRegistry;
+
+    public HttpFetchEngine(Duration connectTimeout, Duration readTimeout) {
+        this(connectTimeout, readTimeout, 0, null);
+    }
+
+    /**
+     * @param connectTimeout       TCP/TLS connect timeout
+     * @param readTimeout          per-request timeout until the response is received
+     * @param maxConcurrentPerHost maximum concurrent requests per host; zero or less means unlimited
+     * @param clientExecutor       executor for the clients' async work, or null for the JDK default
+     */
+    public HttpFetchEngine(Duration connectTimeout, Duration readTimeout, int maxConcurrentPerHost, Executor clientExecutor) {
+        this(connectTimeout, readTimeout, maxConcurrentPerHost, clientExecutor, AdaptiveRateLimiter.Settings.disabled());
+    }
+
+    /**
+     * @param connectTimeout       TCP/TLS connect timeout
+     * @param readTimeout          per-request timeout until the response is received
+     * @param maxConcurrentPerHost maximum concurrent requests per host; zero or less means unlimited
+     * @param clientExecutor       executor for the clients' async work, or null for the JDK default
+     * @param rateLimitSettings    adaptive per-host rate limit applied before each request
+     */
+    public HttpFetchEngine(Duration connectTimeout, Duration readTimeout, int maxConcurrentPerHost,
+                           Executor clientExecutor, AdaptiveRateLimiter.Settings rateLimitSettings) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.clientExecutor = clientExecutor;
+        this.rateLimitSettings = rateLimitSettings;
+    }
+
+    /**
+     * Sends a GET request through the client dedicated to the URL's host.
+     *
+     * @param urlString   the URL to fetch
+     * @param bodyHandler how to consume the response body
+     * @param <T>         the body type
+     * @return the HTTP response
+     * @throws IOException          if the request fails
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public <T> HttpResponse<T> send(String urlString, HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        URI uri = URI.create(urlString);
+        HostClient hostClient = clientFor(uri);
+        hostClient.rateLimiter.acquire();
+        hostClient.limiter.acquire();
+        long start = System.nanoTime();
+        hostClient.inFlight.incrementAndGet();
+        try {
+            HttpResponse<T> response = hostClient.client.send(newRequest(uri), bodyHandler);
+            hostClient.recordResponse(response, System.nanoTime() - start);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            hostClient.failures.incrementAndGet();
+            throw e;
+        } finally {
+            hostClient.inFlight.decrementAndGet();
+            hostClient.limiter.release();
+        }
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #send(String, HttpResponse.BodyHandler)}.
+     * <p>
+     * Cancelling the returned future abandons the request: if it is still waiting for the host's rate limiter or
+     * concurrency permit it is never sent, otherwise the underlying exchange is cancelled and its connection
+     * stream released. Cancelled requests are not counted as failures.
+     *
+     * @param urlString   the URL to fetch
+     * @param bodyHandler how to consume the response body
+     * @param <T>         the body type
+     * @return a future completing with the HTTP response
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(String urlString, HttpResponse.BodyHandler<T> bodyHandler) {
+        URI uri = URI.create(urlString);
+        HostClient hostClient = clientFor(uri);
+        HttpRequest request = newRequest(uri);
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<HttpResponse<T>>> exchange = new AtomicReference<>();
+        hostClient.rateLimiter.acquireAsync()
+                .thenCompose(token -> hostClient.limiter.acquireAsync())
+                .thenCompose(permit -> {
+                    if (result.isDone()) {
+                        hostClient.limiter.release();
+                        return CompletableFuture.<HttpResponse<T>>failedFuture(new CancellationException());
+                    }
+                    long start = System.nanoTime();
+                    hostClient.inFlight.incrementAndGet();
+                    CompletableFuture<HttpResponse<T>> sent = hostClient.client.sendAsync(request, bodyHandler);
+                    exchange.set(sent);
+                    if (result.isCancelled()) {
+                        sent.cancel(true);
+                    }
+                    return sent.whenComplete((response, error) -> {
+                        hostClient.inFlight.decrementAndGet();
+                        hostClient.limiter.release();
+                        if (error == null) {
+                            hostClient.recordResponse(response, System.nanoTime() - start);
+                        } else if (!result.isCancelled()) {
+                            hostClient.failures.incrementAndGet();
+                        }
+                    });
+                })
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(response);
+                    }
+                });
+        result.whenComplete((response, error) -> {
+            CompletableFuture<HttpResponse<T>> sent = exchange.get();
+            if (result.isCancelled() && sent != null) {
+                sent.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private HttpRequest newRequest(URI uri) {
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(readTimeout)
+                .GET()
+                .build();
+    }
+
+    private HostClient clientFor(URI uri) {
+        String host = uri.getHost() == null ? "unknown" : uri.getHost().toLowerCase(Locale.ROOT);
+        return clients.computeIfAbsent(host, this::createHostClient);
+    }
+
+    private HostClient createHostClient(String host) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout);
+        if (clientExecutor != null) {
+            builder.executor(clientExecutor);
+        }
+        HttpClient client = builder.build();
+        clientsCreated.incrementAndGet();
+        log.info("Created shared HTTP client for host {} (connectTimeout={}ms, readTimeout={}ms, maxConcurrent={})",
+                host, connectTimeout.toMillis(), readTimeout.toMillis(), maxConcurrentPerHost);
+        HostClient hostClient = new HostClient(host, client, new HostConcurrencyLimiter(maxConcurrentPerHost),
+                new AdaptiveRateLimiter(rateLimitSettings));
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            hostClient.bindTo(registry);
+        }
+        return hostClient;
+    }
+
+    /**
+     * @return the rate limiter of the URL's host, creating the host client if needed
+     */
+    AdaptiveRateLimiter rateLimiterFor(String urlString) {
+        return clientFor(URI.create(urlString)).rateLimiter;
+    }
+
+    /**
+     * Parses a {@code Retry-After} header given either as delay-seconds or as an HTTP date.
+     *
+     * @return the requested delay, or null when the header is absent or malformed
+     */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException ignored) {
+            // Not delay-seconds, try the HTTP-date form
+        }
+        try {
+            ZonedDateTime retryAt = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+            return delay.isNegative() ? Duration.ZERO : delay;
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring malformed Retry-After header: {}", value);
+            return null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        Gauge.builder("http.fetch.pool.clients", clients, ConcurrentMap::size)
+                .description("Number of long-lived HTTP clients (one connection pool per upstream host)")
+                .register(registry);
+        FunctionCounter.builder("http.fetch.pool.clients.created", clientsCreated, AtomicLong::get)
+                .description("HTTP clients created since startup; stays flat when connections are reused")
+                .register(registry);
+        clients.values().forEach(hostClient -> hostClient.bindTo(registry));
+    }
+
+    /**
+     * Per-host client with its own connection pool plus the counters needed to show reuse.
+     */
+    private static final class HostClient {
+        final String host;
+        final HttpClient client;
+        final HostConcurrencyLimiter limiter;
+        final AdaptiveRateLimiter rateLimiter;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong http2Responses = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        volatile Timer latency;
+
+        HostClient(String host, HttpClient client, HostConcurrencyLimiter limiter, AdaptiveRateLimiter rateLimiter) {
+            this.host = host;
+            this.client = client;
+            this.limiter = limiter;
+            this.rateLimiter = rateLimiter;
+        }
+
+        void recordResponse(HttpResponse<?> response, long elapsedNanos) {
+            requests.incrementAndGet();
+            int status = response.statusCode();
+            if (status == 429 || status == 503) {
+                Duration retryAfter = parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null));
+                rateLimiter.onThrottled(retryAfter);
+                log.warn("Host {} answered {} (Retry-After={}), rate lowered to {} req/s",
+                        host, status, retryAfter, String.format(Locale.ROOT, "%.2f", rateLimiter.getRatePerSecond()));
+            } else {
+                rateLimiter.onSuccess();
+            }
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.incrementAndGet();
+            }
+            Timer timer = latency;
+            if (timer != null) {
+                timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void bindTo(MeterRegistry registry) {
+            Gauge.builder("http.fetch.inflight", inFlight, AtomicInteger::get)
+                    .tag("host", host)
+                    .description("Requests currently in flight on the shared client")
+                    .register(registry);
+            Gauge.builder("http.fetch.limiter.waiting", limiter, HostConcurrencyLimiter::getWaiting)
+                    .tag("host", host)
+                    .description("Requests waiting for a per-host concurrency permit")
+                    .register(registry);
+            Gauge.builder("http.fetch.ratelimit.rate", rateLimiter, AdaptiveRateLimiter::getRatePerSecond)
+                    .tag("host", host)
+                    .description("Current adaptive rate limit in requests per second (0 when disabled)")
+                    .register(registry);
+            Gauge.builder("http.fetch.ratelimit.paused", rateLimiter, AdaptiveRateLimiter::getPausedSeconds)
+                    .tag("host", host)
+                    .description("Seconds remaining in a Retry-After pause")
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("http.fetch.ratelimit.throttled", rateLimiter, AdaptiveRateLimiter::getThrottledResponses)
+                    .tag("host", host)
+                    .description("429/503 responses received from the host")
+                    .register(registry);
+            FunctionCounter.builder("http.fetch.ratelimit.wait", rateLimiter, AdaptiveRateLimiter::getWaitedSeconds)
+                    .tag("host", host)
+                    .description("Total time requests were delayed by the rate limiter")
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("http.fetch.requests", requests, AtomicLong::get)
+                    .tag("host", host)
+                    .description("Requests served by the shared client (all reuse the same pool)")
+                    .register(registry);
+            FunctionCounter.builder("http.fetch.requests.http2", http2Responses, AtomicLong::get)
+                    .tag("host", host)
+                    .description("Responses multiplexed over HTTP/2")
+                    .register(registry);
+            FunctionCounter.builder("http.fetch.failures", failures, AtomicLong::get)
+                    .tag("host", host)
+                    .description("Requests that failed with an I/O error")
+                    .register(registry);
+            latency = Timer.builder("http.fetch.latency")
+                    .tag("host", host)
+                    .description("Time until response headers (and body, for buffered handlers) were received")
+                    .register(registry);
+        }
+    }
+}
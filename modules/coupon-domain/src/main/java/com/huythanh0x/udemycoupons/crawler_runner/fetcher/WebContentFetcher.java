@@ -1,5 +1,6 @@
 package com.huythanh0x.udemycoupons.crawler_runner.fetcher;
 
+import com.huythanh0x.udemycoupons.utils.JsonPathCollector;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.jsoup.Jsoup;
@@ -7,15 +8,16 @@ import org.jsoup.nodes.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
+import java.io.InputStream;
 import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A utility class for fetching and parsing web content.
+ * All requests go through the shared {@link HttpFetchEngine}.
  */
 public class WebContentFetcher {
     private static final Logger log = LoggerFactory.getLogger(WebContentFetcher.class);
@@ -40,6 +42,136 @@ public class WebContentFetcher {
         }
     }
 
+    /**
+     * Asynchronous counterpart of {@link #getJsonObjectFrom(String)}.
+     * The returned future never completes exceptionally; failures complete it with null.
+     *
+     * @param urlString the URL from which to retrieve the JSON object
+     * @return a future completing with the JSONObject, or with null if the request or parsing failed
+     */
+    public static CompletableFuture<JSONObject> getJsonObjectFromAsync(String urlString) {
+        return getRawHTMLContentFromAsync(urlString).thenApply(content -> {
+            if (content == null || content.trim().isEmpty()) {
+                log.warn("Failed to fetch content from {}, returning null", urlString);
+                return null;
+            }
+            try {
+                return new JSONObject(content);
+            } catch (Exception e) {
+                log.warn("Error parsing JSON from {}: {}", urlString, e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Fetches a JSON document and stream-extracts the collector's paths from the response body without building a
+     * DOM. Reading stops as soon as every path was found; the rest of the body is discarded with the stream.
+     *
+     * @param urlString the URL of the JSON document
+     * @param collector the paths to extract
+     * @return values by path (missing paths are absent), or null if the request or parsing failed
+     */
+    public static Map<String, String> getJsonFieldsFrom(String urlString, JsonPathCollector collector) {
+        try {
+            HttpResponse<InputStream> response = HttpFetchEngine.getInstance()
+                    .send(urlString, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                return collector.collect(body);
+            }
+        } catch (IOException e) {
+            log.warn("Error fetching or parsing JSON from {}: {}", urlString, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while fetching content from {}", urlString, e);
+        }
+        return null;
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #getJsonFieldsFrom(String, JsonPathCollector)}.
+     * The body is received as bytes so no client thread blocks on the stream, then parsed the same way.
+     * The returned future never completes exceptionally; failures complete it with null. Cancelling it
+     * cancels the HTTP request (see {@link HttpFetchEngine#sendAsync}).
+     *
+     * @param urlString the URL of the JSON document
+     * @param collector the paths to extract
+     * @return a future completing with values by path, or with null if the request or parsing failed
+     */
+    public static CompletableFuture<Map<String, String>> getJsonFieldsFromAsync(String urlString,
+                                                                                JsonPathCollector collector) {
+        try {
+            CompletableFuture<HttpResponse<byte[]>> request = HttpFetchEngine.getInstance()
+                    .sendAsync(urlString, HttpResponse.BodyHandlers.ofByteArray());
+            CompletableFuture<Map<String, String>> fields = request
+                    .thenApply(response -> {
+                        try {
+                            return collector.collect(new ByteArrayInputStream(response.body()));
+                        } catch (IOException e) {
+                            log.warn("Error parsing JSON from {}: {}", urlString, e.getMessage());
+                            return null;
+                        }
+                    })
+                    .exceptionally(e -> {
+                        if (!request.isCancelled()) {
+                            log.warn("Error fetching content from {}", urlString, e);
+                        }
+                        return null;
+                    });
+            fields.whenComplete((result, error) -> {
+                if (fields.isCancelled()) {
+                    request.cancel(true);
+                }
+            });
+            return fields;
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid URL {}", urlString, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Reads the course id from a coupon page's {@code udemy://discover?courseId=} deeplink with a
+     * {@link CourseIdBodySubscriber}: the body is scanned while it downloads and the transfer is cancelled
+     * right after the id, so neither the whole page nor a parsed document is ever held.
+     *
+     * @param urlString the coupon page URL
+     * @return the course id, or -1 if the page has no deeplink or the request failed
+     */
+    public static int getCourseIdFrom(String urlString) {
+        try {
+            return HttpFetchEngine.getInstance().send(urlString, CourseIdBodySubscriber.handler()).body();
+        } catch (IOException e) {
+            log.warn("Error fetching content from {}", urlString, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while fetching content from {}", urlString, e);
+        }
+        return -1;
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #getCourseIdFrom(String)}.
+     * The returned future never completes exceptionally; failures complete it with -1.
+     *
+     * @param urlString the coupon page URL
+     * @return a future completing with the course id, or with -1 if not found or the request failed
+     */
+    public static CompletableFuture<Integer> getCourseIdFromAsync(String urlString) {
+        try {
+            return HttpFetchEngine.getInstance()
+                    .sendAsync(urlString, CourseIdBodySubscriber.handler())
+                    .thenApply(HttpResponse::body)
+                    .exceptionally(e -> {
+                        log.warn("Error fetching content from {}", urlString, e);
+                        return -1;
+                    });
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid URL {}", urlString, e);
+            return CompletableFuture.completedFuture(-1);
+        }
+    }
+
     /**
      * Retrieves raw HTML content from a specified URL and converts it into a JSONArray object.
      *
@@ -81,20 +213,16 @@ public class WebContentFetcher {
     }
 
     /**
-     * Fetches the raw HTML content from a given URL using the curl command.
+     * Fetches the raw HTML content from a given URL through the shared {@link HttpFetchEngine},
+     * so repeated requests to the same host reuse pooled connections.
      *
      * @param urlString the URL from which to fetch the raw HTML content
      * @return the raw HTML content retrieved from the provided URL as a String
      */
     public static String getRawHTMLContentFrom(String urlString) {
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(urlString))
-                .timeout(Duration.ofSeconds(10)) // Set a timeout for the request
-                .build();
-
         try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> response = HttpFetchEngine.getInstance()
+                    .send(urlString, HttpResponse.BodyHandlers.ofString());
             return response.body();
 
         } catch (IOException e) {
@@ -105,4 +233,26 @@ public class WebContentFetcher {
         }
         return null;
     }
+
+    /**
+     * Asynchronous counterpart of {@link #getRawHTMLContentFrom(String)}.
+     * The returned future never completes exceptionally; failures complete it with null.
+     *
+     * @param urlString the URL from which to fetch the raw HTML content
+     * @return a future completing with the response body, or with null if the request failed
+     */
+    public static CompletableFuture<String> getRawHTMLContentFromAsync(String urlString) {
+        try {
+            return HttpFetchEngine.getInstance()
+                    .sendAsync(urlString, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(HttpResponse::body)
+                    .exceptionally(e -> {
+                        log.warn("Error fetching content from {}", urlString, e);
+                        return null;
+                    });
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid URL {}", urlString, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
 }
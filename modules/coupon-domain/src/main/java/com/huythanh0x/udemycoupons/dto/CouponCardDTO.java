@@ -0,0 +1,46 @@
+package com.huythanh0x.udemycoupons.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * One coupon of a listing page: what a coupon card shows, including the heading, without the description and
+ * preview video unless requested with {@code fields=}. Field names match {@code CouponCourseData}, so the JSON keys are the same.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CouponCardDTO {
+    private int courseId;
+    private String category;
+    private String subCategory;
+    private String title;
+    private int contentLength;
+    private String level;
+    private String author;
+    private float rating;
+    private int reviews;
+    private int students;
+    private String couponCode;
+    private String previewImage;
+    private String couponUrl;
+    private Instant expiredDate;
+    private int usesRemaining;
+    private String language;
+    private boolean isNew;
+    private LocalDateTime createdAt;
+    private String heading;
+
+    // Optional fields, only loaded and serialized when requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String description;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String previewVideo;
+}
@@ -1,6 +1,6 @@
 package com.huythanh0x.udemycoupons.dto;
 
-import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
+import com.huythanh0x.udemycoupons.repository.CouponSlice;
 import com.huythanh0x.udemycoupons.utils.LastFetchTimeManager;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,18 +20,31 @@ public class PagedCouponResponseDTO {
     Long totalCoupon;
     Integer totalPage;
     Integer currentPage;
-    List<CouponCourseData> courses;
+    List<CouponCardDTO> courses;
+    String nextCursor; // Cursor mode only; null on the last page
 
     /**
-     * Constructs a new PagedCouponResponseDTO object with the given page of CouponCourseData objects.
+     * Constructs a new PagedCouponResponseDTO object with the given page of coupon cards.
      *
-     * @param courses the page of CouponCourseData objects
+     * @param courses the page of CouponCardDTO objects
      */
-    public PagedCouponResponseDTO(Page<CouponCourseData> courses) {
+    public PagedCouponResponseDTO(Page<CouponCardDTO> courses) {
         this.totalPage = courses.getTotalPages();
         this.totalCoupon = courses.getTotalElements();
         this.currentPage = courses.getPageable().getPageNumber();
         this.courses = courses.getContent();
         this.lastFetchTime = LastFetchTimeManager.loadLasFetchedTimeInMilliSecond();
     }
+
+    /**
+     * Constructs a cursor-mode response; page numbers do not apply and the total is only set when requested.
+     *
+     * @param slice the keyset page of CouponCardDTO objects
+     */
+    public PagedCouponResponseDTO(CouponSlice slice) {
+        this.totalCoupon = slice.total();
+        this.courses = slice.content();
+        this.nextCursor = slice.next() != null ? slice.next().encode() : null;
+        this.lastFetchTime = LastFetchTimeManager.loadLasFetchedTimeInMilliSecond();
+    }
 }
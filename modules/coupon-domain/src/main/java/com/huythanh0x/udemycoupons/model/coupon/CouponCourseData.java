@@ -36,6 +36,10 @@ public class CouponCourseData {
     @Column(name = "expired_date", nullable = false)
     private Instant expiredDate;
     private int usesRemaining;
+    // Moving average of the drop in usesRemaining per hour, null until observed twice (UsesDepletionEstimator)
+    private Double usesPerHour;
+    // When usesRemaining is forecast to reach zero, null when nothing is being consumed
+    private Instant depletesAt;
     private String heading;
     @Column(columnDefinition = "TEXT")
     private String description;
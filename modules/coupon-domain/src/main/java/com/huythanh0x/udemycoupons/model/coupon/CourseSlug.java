@@ -0,0 +1,42 @@
+package com.huythanh0x.udemycoupons.model.coupon;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity mapping a Udemy course slug (the {@code /course/<slug>/} part of a coupon URL) to its courseId.
+ * A slug identifies the course independently of the coupon code, so new coupons for a known course
+ * can skip the coupon page fetch that would otherwise resolve the courseId.
+ */
+@Entity
+@Table(name = "course_slug_index")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CourseSlug {
+    @Id
+    @Column(name = "slug", length = 255)
+    private String slug;
+
+    @Column(name = "course_id", nullable = false)
+    private Integer courseId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
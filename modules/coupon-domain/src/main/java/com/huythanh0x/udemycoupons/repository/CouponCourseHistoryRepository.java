@@ -5,6 +5,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CouponCourseHistoryRepository extends JpaRepository<CouponCourseHistory, Long> {
+public interface CouponCourseHistoryRepository extends JpaRepository<CouponCourseHistory, Long>, CouponCourseHistoryRepositoryCustom {
 }
 
@@ -0,0 +1,19 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.CouponCourseHistory;
+
+import java.util.Collection;
+
+/**
+ * Batched inserts for history rows. IDENTITY ids prevent Hibernate from batching inserts,
+ * so {@code saveAll} would issue one INSERT per row.
+ */
+public interface CouponCourseHistoryRepositoryCustom {
+
+    /**
+     * Inserts all history entries in a single JDBC batch. Generated ids are not read back.
+     *
+     * @param historyEntries entries to append
+     */
+    void insertAll(Collection<CouponCourseHistory> historyEntries);
+}
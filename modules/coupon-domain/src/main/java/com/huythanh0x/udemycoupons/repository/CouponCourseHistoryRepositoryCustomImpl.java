@@ -0,0 +1,41 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.CouponCourseHistory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * JDBC implementation of {@link CouponCourseHistoryRepositoryCustom}.
+ * With {@code rewriteBatchedStatements=true} on the MySQL URL the batch is sent as one multi-row INSERT.
+ */
+public class CouponCourseHistoryRepositoryCustomImpl implements CouponCourseHistoryRepositoryCustom {
+    private static final String INSERT_SQL =
+            "INSERT INTO coupon_course_history (course_id, title, coupon_url, status, created_at) " +
+            "VALUES (?, ?, ?, ?, NOW())";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponCourseHistoryRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(Collection<CouponCourseHistory> historyEntries) {
+        if (historyEntries == null || historyEntries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new ArrayList<>(historyEntries), historyEntries.size(), (ps, entry) -> {
+            if (entry.getCourseId() != null) {
+                ps.setInt(1, entry.getCourseId());
+            } else {
+                ps.setNull(1, Types.INTEGER);
+            }
+            ps.setString(2, entry.getTitle());
+            ps.setString(3, entry.getCouponUrl());
+            ps.setString(4, entry.getStatus());
+        });
+    }
+}
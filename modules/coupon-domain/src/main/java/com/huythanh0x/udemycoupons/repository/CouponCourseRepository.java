@@ -2,22 +2,19 @@ package com.huythanh0x.udemycoupons.repository;
 
 import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
 import jakarta.transaction.Transactional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 @Repository
-public interface CouponCourseRepository extends JpaRepository<CouponCourseData, Integer> {
-
-    Page<CouponCourseData> findByTitleContainingOrDescriptionContainingOrHeadingContaining(String title, String description, String heading, Pageable pageable);
-
-    Page<CouponCourseData> findByRatingGreaterThanAndContentLengthGreaterThanAndLevelContainingAndCategoryIsContainingIgnoreCaseAndLanguageContaining(float rating, int contentLength, String level, String category, String language, Pageable pageable);
+public interface CouponCourseRepository extends JpaRepository<CouponCourseData, Integer>, CouponCourseRepositoryCustom,
+        CouponCourseSearchRepository {
 
     CouponCourseData findByCourseId(Integer courseId);
 
@@ -57,28 +54,66 @@ public interface CouponCourseRepository extends JpaRepository<CouponCourseData,
     @Query("SELECT c.courseId FROM CouponCourseData c WHERE c.couponUrl = :couponUrl")
     Integer findCourseIdByCouponUrl(@Param("couponUrl") String couponUrl);
 
+    /**
+     * Resolves courseId and title for many coupon URLs in one query.
+     * Replaces per-URL {@link #findCourseIdByCouponUrl} / {@link #findByCouponUrl} lookups in the crawler.
+     *
+     * @param couponUrls The coupon URLs to resolve
+     * @return One projection per URL present in the active coupon table
+     */
+    @Query("SELECT c.couponUrl AS couponUrl, c.courseId AS courseId, c.title AS title " +
+           "FROM CouponCourseData c WHERE c.couponUrl IN :couponUrls")
+    List<CouponUrlProjection> findProjectionsByCouponUrlIn(@Param("couponUrls") Collection<String> couponUrls);
+
+    /**
+     * Loads the refresh-relevant fields of every active coupon, used to (re)build the refresh schedule.
+     *
+     * @return one projection per active coupon
+     */
+    @Query("SELECT c.couponUrl AS couponUrl, c.expiredDate AS expiredDate, c.usesRemaining AS usesRemaining, " +
+           "c.updatedAt AS updatedAt, c.usesPerHour AS usesPerHour, c.depletesAt AS depletesAt " +
+           "FROM CouponCourseData c WHERE c.couponUrl IS NOT NULL")
+    List<CouponRefreshProjection> findRefreshProjections();
+
+    /**
+     * Loads the refresh-relevant fields of the given coupons, used to reschedule them after a refresh and to
+     * carry their depletion forecast forward.
+     *
+     * @param couponUrls The coupon URLs to load
+     * @return One projection per URL still present in the active coupon table
+     */
+    @Query("SELECT c.couponUrl AS couponUrl, c.expiredDate AS expiredDate, c.usesRemaining AS usesRemaining, " +
+           "c.updatedAt AS updatedAt, c.usesPerHour AS usesPerHour, c.depletesAt AS depletesAt " +
+           "FROM CouponCourseData c WHERE c.couponUrl IN :couponUrls")
+    List<CouponRefreshProjection> findRefreshProjectionsByCouponUrlIn(@Param("couponUrls") Collection<String> couponUrls);
+
     /**
      * Finds coupon URLs that need to be refreshed based on multiple criteria:
      * - Expiring within the specified threshold, OR
      * - Have uses remaining less than the specified minimum, OR
-     * - Haven't been updated since the specified timestamp
+     * - Forecast to run out of uses within the expiration threshold, OR
+     * - Haven't been updated since the specified timestamp; coupons with a known depletion rate (and no forecast
+     *   within the threshold) only once they haven't been updated since the forecast timestamp
      * 
      * This merged query is more efficient than calling separate methods.
      *
-     * @param expirationThreshold Instant threshold for expiration (e.g., expires within 2 hours)
+     * @param expirationThreshold Instant threshold for expiration and depletion (e.g., expires within 2 hours)
      * @param minUsesRemaining Minimum uses remaining threshold (e.g., 50 = less than 50 uses)
      * @param updatedBefore LocalDateTime threshold - coupons with updatedAt before this time
+     * @param forecastUpdatedBefore LocalDateTime threshold for coupons whose depletion rate is known
      * @return Set of coupon URLs that need to be refreshed for any of the above reasons
      */
     @Query("SELECT DISTINCT c.couponUrl FROM CouponCourseData c WHERE " +
            "c.couponUrl IS NOT NULL AND (" +
            "(c.expiredDate <= :expirationThreshold) OR " +
            "(c.usesRemaining < :minUsesRemaining) OR " +
-           "(c.updatedAt < :updatedBefore)" +
+           "(c.depletesAt <= :expirationThreshold) OR " +
+           "(c.updatedAt < :updatedBefore AND (c.usesPerHour IS NULL OR c.updatedAt < :forecastUpdatedBefore))" +
            ")")
     Set<String> findCouponUrlsNeedingRefresh(
         @Param("expirationThreshold") java.time.Instant expirationThreshold,
         @Param("minUsesRemaining") int minUsesRemaining,
-        @Param("updatedBefore") java.time.LocalDateTime updatedBefore
+        @Param("updatedBefore") java.time.LocalDateTime updatedBefore,
+        @Param("forecastUpdatedBefore") java.time.LocalDateTime forecastUpdatedBefore
     );
 }
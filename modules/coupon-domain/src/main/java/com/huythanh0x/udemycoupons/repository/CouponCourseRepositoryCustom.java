@@ -0,0 +1,26 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
+
+import java.util.Collection;
+
+/**
+ * Bulk write path for coupons, bypassing JPA {@code merge} (one SELECT plus one INSERT/UPDATE per entity
+ * because {@code courseId} is an assigned id).
+ */
+public interface CouponCourseRepositoryCustom {
+
+    /**
+     * Inserts or updates all coupons in a single JDBC batch ({@code INSERT ... ON DUPLICATE KEY UPDATE}).
+     * <ul>
+     *   <li>{@code created_at} is set only when the row is inserted and never overwritten.</li>
+     *   <li>{@code updated_at} is refreshed for every row, as {@code @UpdateTimestamp} did.</li>
+     *   <li>{@code is_new} is written from the entity, exactly like {@code saveAll}.</li>
+     *   <li>{@code uses_per_hour} and {@code depletes_at} are written from the entity; the crawler derives them from
+     *   the previous row before the upsert.</li>
+     * </ul>
+     *
+     * @param coupons coupons to write
+     */
+    void upsertAll(Collection<CouponCourseData> coupons);
+}
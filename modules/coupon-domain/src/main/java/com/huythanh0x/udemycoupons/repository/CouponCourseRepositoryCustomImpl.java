@@ -0,0 +1,90 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.CouponCourseData;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.TimeZone;
+
+/**
+ * JDBC implementation of {@link CouponCourseRepositoryCustom}.
+ * With {@code rewriteBatchedStatements=true} on the MySQL URL the batch is sent as one multi-row statement.
+ */
+public class CouponCourseRepositoryCustomImpl implements CouponCourseRepositoryCustom {
+    static final String UPSERT_SQL =
+            "INSERT INTO coupon_course_data (course_id, category, sub_category, title, content_length, level, author, " +
+            "rating, reviews, students, coupon_code, preview_image, coupon_url, expired_date, uses_remaining, heading, " +
+            "description, preview_video, language, is_new, uses_per_hour, depletes_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "category = VALUES(category), sub_category = VALUES(sub_category), title = VALUES(title), " +
+            "content_length = VALUES(content_length), level = VALUES(level), author = VALUES(author), " +
+            "rating = VALUES(rating), reviews = VALUES(reviews), students = VALUES(students), " +
+            "coupon_code = VALUES(coupon_code), preview_image = VALUES(preview_image), coupon_url = VALUES(coupon_url), " +
+            "expired_date = VALUES(expired_date), uses_remaining = VALUES(uses_remaining), heading = VALUES(heading), " +
+            "description = VALUES(description), preview_video = VALUES(preview_video), language = VALUES(language), " +
+            "is_new = VALUES(is_new), uses_per_hour = VALUES(uses_per_hour), depletes_at = VALUES(depletes_at), " +
+            "updated_at = VALUES(updated_at)";
+
+    // Hibernate 6 binds Instant as a UTC timestamp; use the same calendar so both write paths agree.
+    // created_at/updated_at are LocalDateTime in the JVM zone (as @CreationTimestamp/@UpdateTimestamp write them),
+    // so they are bound from the JVM clock rather than the database's NOW(), whose zone may differ.
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponCourseRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertAll(Collection<CouponCourseData> coupons) {
+        if (coupons == null || coupons.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(coupons), coupons.size(), (ps, coupon) -> {
+            ps.setInt(1, coupon.getCourseId());
+            ps.setString(2, coupon.getCategory());
+            ps.setString(3, coupon.getSubCategory());
+            ps.setString(4, coupon.getTitle());
+            ps.setInt(5, coupon.getContentLength());
+            ps.setString(6, coupon.getLevel());
+            ps.setString(7, coupon.getAuthor());
+            ps.setFloat(8, coupon.getRating());
+            ps.setInt(9, coupon.getReviews());
+            ps.setInt(10, coupon.getStudents());
+            ps.setString(11, coupon.getCouponCode());
+            ps.setString(12, coupon.getPreviewImage());
+            ps.setString(13, coupon.getCouponUrl());
+            if (coupon.getExpiredDate() != null) {
+                ps.setTimestamp(14, Timestamp.from(coupon.getExpiredDate()), (Calendar) UTC.clone());
+            } else {
+                ps.setNull(14, Types.TIMESTAMP);
+            }
+            ps.setInt(15, coupon.getUsesRemaining());
+            ps.setString(16, coupon.getHeading());
+            ps.setString(17, coupon.getDescription());
+            ps.setString(18, coupon.getPreviewVideo());
+            ps.setString(19, coupon.getLanguage());
+            ps.setBoolean(20, coupon.isNew());
+            if (coupon.getUsesPerHour() != null) {
+                ps.setDouble(21, coupon.getUsesPerHour());
+            } else {
+                ps.setNull(21, Types.DOUBLE);
+            }
+            if (coupon.getDepletesAt() != null) {
+                ps.setTimestamp(22, Timestamp.from(coupon.getDepletesAt()), (Calendar) UTC.clone());
+            } else {
+                ps.setNull(22, Types.TIMESTAMP);
+            }
+            ps.setTimestamp(23, now);
+            ps.setTimestamp(24, now);
+        });
+    }
+}
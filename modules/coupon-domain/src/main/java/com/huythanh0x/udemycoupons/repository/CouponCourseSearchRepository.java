@@ -0,0 +1,58 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.dto.CouponCardDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Set;
+
+/**
+ * Coupon listing that applies free text and structured filters in one native statement, so neither is dropped
+ * and no side is filtered in memory.
+ * <p>
+ * Listings return {@link CouponCardDTO}s read from the card columns only; the description TEXT and preview video
+ * are only read when requested as {@code fields}.
+ */
+public interface CouponCourseSearchRepository {
+    /**
+     * Fields that are left out of cards unless requested.
+     */
+    Set<String> OPTIONAL_FIELDS = Set.of("description", "previewVideo");
+
+    /**
+     * Finds coupons matching every criterion that is set.
+     * <ul>
+     *   <li>Text uses the {@code ft_coupon_course_search} FULLTEXT index; a query without a word of at least
+     *   {@code Constant.FULLTEXT_MIN_TOKEN_SIZE} characters falls back to substring matching.</li>
+     *   <li>Level, category and language match as case-insensitive prefixes so the
+     *   {@code idx_coupon_search_*} indexes can serve them.</li>
+     *   <li>Without a sort, text searches are ordered by relevance and other listings by {@code createdAt} descending.</li>
+     * </ul>
+     *
+     * @param criteria filters to apply
+     * @param fields   optional fields to include, a subset of {@link #OPTIONAL_FIELDS}
+     * @param pageable page to load; sortable by students, rating, createdAt, contentLength and usesRemaining
+     * @return the requested page with the total number of matches
+     * @throws IllegalArgumentException if the pageable sorts by another property or a field is not optional
+     */
+    Page<CouponCardDTO> search(CouponSearchCriteria criteria, Set<String> fields, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #search}: continues after the cursor with {@code WHERE (sortKey, course_id) > / < (?, ?)}
+     * instead of an offset, so every page costs the same however deep the client scrolls. Results are ordered by the
+     * sort property and {@code courseId} in the same direction, never by relevance.
+     *
+     * @param criteria     filters to apply
+     * @param fields       optional fields to include, a subset of {@link #OPTIONAL_FIELDS}
+     * @param sortProperty students, rating, createdAt, contentLength or usesRemaining
+     * @param ascending    sort direction
+     * @param after        position to continue after, null for the first page
+     * @param size         maximum coupons to return
+     * @param includeTotal whether to run the count query as well
+     * @return the coupons, the cursor of the next page (null on the last page) and the total if requested
+     * @throws IllegalArgumentException if the sort property is not supported, the cursor was issued for another sort
+     *                                  or a field is not optional
+     */
+    CouponSlice seek(CouponSearchCriteria criteria, Set<String> fields, String sortProperty, boolean ascending,
+                     CouponCursor after, int size, boolean includeTotal);
+}
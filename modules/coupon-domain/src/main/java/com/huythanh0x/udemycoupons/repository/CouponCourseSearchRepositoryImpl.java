@@ -0,0 +1,259 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.dto.CouponCardDTO;
+import com.huythanh0x.udemycoupons.utils.Constant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * JDBC query builder behind {@link CouponCourseSearchRepository}. Every user value is bound as a parameter;
+ * only whitelisted column names are concatenated.
+ */
+public class CouponCourseSearchRepositoryImpl implements CouponCourseSearchRepository {
+    private static final String MATCH = "MATCH(title, heading, description) AGAINST (? IN NATURAL LANGUAGE MODE)";
+    private static final String CARD_COLUMNS =
+            "course_id, category, sub_category, title, content_length, level, author, rating, reviews, students, " +
+            "coupon_code, preview_image, coupon_url, expired_date, uses_remaining, language, is_new, created_at, heading";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "students", "students",
+            "rating", "rating",
+            "createdAt", "created_at",
+            "contentLength", "content_length",
+            "usesRemaining", "uses_remaining");
+    private static final Map<String, String> OPTIONAL_COLUMNS = Map.of(
+            "description", "description",
+            "previewVideo", "preview_video");
+
+    // expired_date is written as UTC (see CouponCourseRepositoryCustomImpl), so it is read back the same way
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponCourseSearchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<CouponCardDTO> search(CouponSearchCriteria criteria, Set<String> fields, Pageable pageable) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> parameters = new ArrayList<>();
+        boolean fullText = appendCriteria(criteria, where, parameters);
+
+        List<Object> pageParameters = new ArrayList<>(parameters);
+        StringBuilder sql = selectCards(fields).append(where).append(" ORDER BY ");
+        if (pageable.getSort().isSorted()) {
+            for (Sort.Order order : pageable.getSort()) {
+                sql.append(sortColumn(order.getProperty())).append(order.isAscending() ? " ASC, " : " DESC, ");
+            }
+        } else if (fullText) {
+            sql.append(MATCH).append(" DESC, ");
+            pageParameters.add(criteria.query().trim());
+        } else {
+            sql.append("created_at DESC, ");
+        }
+        sql.append("course_id");
+        if (pageable.isPaged()) {
+            sql.append(" LIMIT ? OFFSET ?");
+            pageParameters.add(pageable.getPageSize());
+            pageParameters.add(pageable.getOffset());
+        }
+        List<CouponCardDTO> content = jdbcTemplate.query(sql.toString(), cardMapper(fields), pageParameters.toArray());
+
+        long total;
+        if (pageable.isPaged() && pageable.getOffset() == 0 && content.size() < pageable.getPageSize()) {
+            // The first page is not full, so it holds every match
+            total = content.size();
+        } else {
+            total = count(where, parameters);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public CouponSlice seek(CouponSearchCriteria criteria, Set<String> fields, String sortProperty, boolean ascending,
+                            CouponCursor after, int size, boolean includeTotal) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        String column = sortColumn(sortProperty);
+        String direction = ascending ? " ASC" : " DESC";
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> parameters = new ArrayList<>();
+        appendCriteria(criteria, where, parameters);
+
+        StringBuilder sql = selectCards(fields).append(where);
+        List<Object> pageParameters = new ArrayList<>(parameters);
+        if (after != null) {
+            if (!after.sortProperty().equals(sortProperty) || after.ascending() != ascending) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort");
+            }
+            // Row comparison (column, course_id) > / < (?, ?), spelled out so MySQL range-scans the sort index
+            String comparison = ascending ? " > ?" : " < ?";
+            sql.append(" AND (").append(column).append(comparison)
+                    .append(" OR (").append(column).append(" = ? AND course_id").append(comparison).append("))");
+            Object sortValue = seekValue(after.sortValue());
+            pageParameters.add(sortValue);
+            pageParameters.add(sortValue);
+            pageParameters.add(after.courseId());
+        }
+        // Same direction for the tiebreaker so one index scan serves the whole order
+        sql.append(" ORDER BY ").append(column).append(direction).append(", course_id").append(direction);
+        // One extra row tells whether there is a next page without counting
+        sql.append(" LIMIT ?");
+        pageParameters.add(size + 1);
+        List<CouponCardDTO> content = jdbcTemplate.query(sql.toString(), cardMapper(fields), pageParameters.toArray());
+
+        CouponCursor next = null;
+        if (content.size() > size) {
+            content = content.subList(0, size);
+            next = CouponCursor.after(content.get(size - 1), sortProperty, ascending);
+        }
+        Long total = includeTotal ? count(where, parameters) : null;
+        return new CouponSlice(content, next, total);
+    }
+
+    /**
+     * @return the cursor's sort key as bound in the seek predicate
+     */
+    private static Object seekValue(Object sortValue) {
+        // rating is a FLOAT column: a Float would be sent as its shortest decimal (4.6), which no stored 4.5999999
+        // equals, so ties would repeat (DESC) or be skipped (ASC). The widened double is the stored value exactly.
+        if (sortValue instanceof Float rating) {
+            return rating.doubleValue();
+        }
+        return sortValue;
+    }
+
+    private long count(StringBuilder where, List<Object> parameters) {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupon_course_data" + where, Long.class,
+                parameters.toArray());
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Card columns plus the requested optional columns; the description TEXT is only read when asked for.
+     *
+     * @throws IllegalArgumentException if a field is not an optional field
+     */
+    private static StringBuilder selectCards(Set<String> fields) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(CARD_COLUMNS);
+        for (String field : fields) {
+            String column = OPTIONAL_COLUMNS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported field: " + field);
+            }
+            sql.append(", ").append(column);
+        }
+        return sql.append(" FROM coupon_course_data");
+    }
+
+    private static RowMapper<CouponCardDTO> cardMapper(Set<String> fields) {
+        boolean description = fields.contains("description");
+        boolean previewVideo = fields.contains("previewVideo");
+        return (rs, rowNum) -> {
+            Timestamp expiredDate = rs.getTimestamp("expired_date", (Calendar) UTC.clone());
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            return CouponCardDTO.builder()
+                    .courseId(rs.getInt("course_id"))
+                    .category(rs.getString("category"))
+                    .subCategory(rs.getString("sub_category"))
+                    .title(rs.getString("title"))
+                    .contentLength(rs.getInt("content_length"))
+                    .level(rs.getString("level"))
+                    .author(rs.getString("author"))
+                    .rating(rs.getFloat("rating"))
+                    .reviews(rs.getInt("reviews"))
+                    .students(rs.getInt("students"))
+                    .couponCode(rs.getString("coupon_code"))
+                    .previewImage(rs.getString("preview_image"))
+                    .couponUrl(rs.getString("coupon_url"))
+                    .expiredDate(expiredDate != null ? expiredDate.toInstant() : null)
+                    .usesRemaining(rs.getInt("uses_remaining"))
+                    .language(rs.getString("language"))
+                    .isNew(rs.getBoolean("is_new"))
+                    .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                    .heading(rs.getString("heading"))
+                    .description(description ? rs.getString("description") : null)
+                    .previewVideo(previewVideo ? rs.getString("preview_video") : null)
+                    .build();
+        };
+    }
+
+    /**
+     * Appends the criteria to the WHERE clause.
+     *
+     * @return true if the text is matched through the FULLTEXT index
+     */
+    private static boolean appendCriteria(CouponSearchCriteria criteria, StringBuilder where, List<Object> parameters) {
+        boolean fullText = false;
+        if (criteria.hasQuery()) {
+            String query = criteria.query().trim();
+            fullText = hasFullTextToken(query);
+            if (fullText) {
+                where.append(" AND ").append(MATCH);
+                parameters.add(query);
+            } else {
+                where.append(" AND (title LIKE ? OR heading LIKE ? OR description LIKE ?)");
+                String pattern = "%" + escapeLike(query) + "%";
+                parameters.add(pattern);
+                parameters.add(pattern);
+                parameters.add(pattern);
+            }
+        }
+        if (criteria.minRating() != null) {
+            where.append(" AND rating > ?");
+            parameters.add(criteria.minRating());
+        }
+        if (criteria.minContentLength() != null) {
+            where.append(" AND content_length > ?");
+            parameters.add(criteria.minContentLength());
+        }
+        appendPrefix(where, parameters, "category", criteria.category());
+        appendPrefix(where, parameters, "language", criteria.language());
+        appendPrefix(where, parameters, "level", criteria.level());
+        return fullText;
+    }
+
+    private static void appendPrefix(StringBuilder where, List<Object> parameters, String column, String value) {
+        if (CouponSearchCriteria.hasText(value)) {
+            where.append(" AND ").append(column).append(" LIKE ?");
+            parameters.add(escapeLike(value.trim()) + "%");
+        }
+    }
+
+    private static String sortColumn(String property) {
+        String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+        return column;
+    }
+
+    /**
+     * @return true if the query has a word long enough for the FULLTEXT index
+     */
+    static boolean hasFullTextToken(String query) {
+        for (String word : query.split("[^\\p{L}\\p{N}_]+")) {
+            if (word.length() >= Constant.FULLTEXT_MIN_TOKEN_SIZE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
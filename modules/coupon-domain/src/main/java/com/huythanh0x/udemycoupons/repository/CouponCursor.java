@@ -0,0 +1,68 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.dto.CouponCardDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a coupon listing: the sort key and {@code courseId} of the last coupon returned.
+ * The next page continues strictly after it, so the database seeks instead of skipping an offset.
+ * <p>
+ * Clients see the cursor as an opaque URL-safe token. It also records the sort it was issued for, so it cannot be
+ * replayed against a different order.
+ *
+ * @param sortProperty sort property: students, rating, createdAt, contentLength or usesRemaining
+ * @param ascending    sort direction
+ * @param sortValue    sort key of the last coupon: Integer, Float or LocalDateTime depending on the property
+ * @param courseId     course id of the last coupon, the tiebreaker
+ */
+public record CouponCursor(String sortProperty, boolean ascending, Object sortValue, int courseId) {
+
+    /**
+     * @return the cursor positioned after the given coupon
+     * @throws IllegalArgumentException if the sort property is not supported
+     */
+    public static CouponCursor after(CouponCardDTO coupon, String sortProperty, boolean ascending) {
+        Object sortValue = switch (sortProperty) {
+            case "students" -> coupon.getStudents();
+            case "rating" -> coupon.getRating();
+            case "createdAt" -> coupon.getCreatedAt();
+            case "contentLength" -> coupon.getContentLength();
+            case "usesRemaining" -> coupon.getUsesRemaining();
+            default -> throw new IllegalArgumentException("Unsupported sort property: " + sortProperty);
+        };
+        return new CouponCursor(sortProperty, ascending, sortValue, coupon.getCourseId());
+    }
+
+    public String encode() {
+        String raw = sortProperty + "|" + (ascending ? "asc" : "desc") + "|" + courseId + "|" + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token a token returned by {@link #encode()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static CouponCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4 || !("asc".equals(parts[1]) || "desc".equals(parts[1]))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String sortProperty = parts[0];
+            Object sortValue = switch (sortProperty) {
+                case "students", "contentLength", "usesRemaining" -> Integer.valueOf(parts[3]);
+                case "rating" -> Float.valueOf(parts[3]);
+                case "createdAt" -> LocalDateTime.parse(parts[3]);
+                default -> throw new IllegalArgumentException("Invalid cursor");
+            };
+            return new CouponCursor(sortProperty, "asc".equals(parts[1]), sortValue, Integer.parseInt(parts[2]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
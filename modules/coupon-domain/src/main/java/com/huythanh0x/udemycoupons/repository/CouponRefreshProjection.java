@@ -0,0 +1,32 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * What the crawler needs to know about an active coupon to decide when to check it again and to update its
+ * depletion forecast.
+ */
+public interface CouponRefreshProjection {
+    String getCouponUrl();
+
+    Instant getExpiredDate();
+
+    Integer getUsesRemaining();
+
+    LocalDateTime getUpdatedAt();
+
+    Double getUsesPerHour();
+
+    Instant getDepletesAt();
+
+    /**
+     * @return time of the last check; {@code updated_at} is written in the JVM zone, and a coupon that was never
+     * updated counts as checked long ago
+     */
+    default Instant checkedAt() {
+        LocalDateTime updatedAt = getUpdatedAt();
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant() : Instant.EPOCH;
+    }
+}
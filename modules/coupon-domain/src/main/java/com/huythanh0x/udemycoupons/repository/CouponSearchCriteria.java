@@ -0,0 +1,27 @@
+package com.huythanh0x.udemycoupons.repository;
+
+/**
+ * Filters of a coupon listing; null (or blank) fields are not applied.
+ *
+ * @param query            free text matched against title, heading and description
+ * @param minRating        rating strictly greater than this
+ * @param minContentLength content length strictly greater than this
+ * @param level            level prefix, e.g. "Beginner" for "Beginner Level"
+ * @param category         category prefix
+ * @param language         language prefix
+ */
+public record CouponSearchCriteria(String query,
+                                   Float minRating,
+                                   Integer minContentLength,
+                                   String level,
+                                   String category,
+                                   String language) {
+
+    public boolean hasQuery() {
+        return query != null && !query.isBlank();
+    }
+
+    static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
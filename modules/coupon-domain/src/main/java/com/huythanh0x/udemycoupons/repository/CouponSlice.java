@@ -0,0 +1,15 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.dto.CouponCardDTO;
+
+import java.util.List;
+
+/**
+ * One keyset page of coupons.
+ *
+ * @param content coupons of the page
+ * @param next    position after the last coupon, null when there are no more coupons
+ * @param total   number of matching coupons, null unless requested
+ */
+public record CouponSlice(List<CouponCardDTO> content, CouponCursor next, Long total) {
+}
@@ -0,0 +1,13 @@
+package com.huythanh0x.udemycoupons.repository;
+
+/**
+ * Lightweight projection of what is already known about a coupon URL (no full entity load).
+ * Used by the crawler to resolve a whole batch of URLs with a single {@code IN (...)} query per table.
+ */
+public interface CouponUrlProjection {
+    String getCouponUrl();
+
+    Integer getCourseId();
+
+    String getTitle();
+}
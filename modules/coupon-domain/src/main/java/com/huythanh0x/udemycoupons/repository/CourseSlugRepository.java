@@ -0,0 +1,23 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.CourseSlug;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the course slug to courseId index.
+ */
+@Repository
+public interface CourseSlugRepository extends JpaRepository<CourseSlug, String>, CourseSlugRepositoryCustom {
+
+    /**
+     * Finds the index entries of several slugs with a single {@code IN (...)} query.
+     *
+     * @param slugs course slugs to look up
+     * @return entries for the slugs that are known
+     */
+    List<CourseSlug> findBySlugIn(Collection<String> slugs);
+}
@@ -0,0 +1,16 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import java.util.Map;
+
+/**
+ * Bulk writes to the course slug index.
+ */
+public interface CourseSlugRepositoryCustom {
+
+    /**
+     * Inserts or updates all slug to courseId pairs in a single JDBC batch.
+     *
+     * @param courseIdsBySlug courseIds resolved during a batch, keyed by slug
+     */
+    void upsertAll(Map<String, Integer> courseIdsBySlug);
+}
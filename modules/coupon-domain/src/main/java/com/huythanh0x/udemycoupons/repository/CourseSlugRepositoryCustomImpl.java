@@ -0,0 +1,34 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link CourseSlugRepositoryCustom}.
+ * With {@code rewriteBatchedStatements=true} on the MySQL URL the upsert is sent as one multi-row statement.
+ */
+public class CourseSlugRepositoryCustomImpl implements CourseSlugRepositoryCustom {
+    private static final String UPSERT_SQL =
+            "INSERT INTO course_slug_index (slug, course_id, created_at, updated_at) VALUES (?, ?, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE course_id = VALUES(course_id), updated_at = NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CourseSlugRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertAll(Map<String, Integer> courseIdsBySlug) {
+        if (courseIdsBySlug == null || courseIdsBySlug.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(courseIdsBySlug.entrySet()), courseIdsBySlug.size(),
+                (ps, entry) -> {
+                    ps.setString(1, entry.getKey());
+                    ps.setInt(2, entry.getValue());
+                });
+    }
+}
@@ -9,10 +9,12 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 @Repository
-public interface ExpiredCouponRepository extends JpaRepository<ExpiredCourseData, Integer> {
+public interface ExpiredCouponRepository extends JpaRepository<ExpiredCourseData, Integer>, ExpiredCouponRepositoryCustom {
 
     /**
      * Efficiently retrieves all expired coupon URLs without loading full entities.
@@ -52,6 +54,16 @@ public interface ExpiredCouponRepository extends JpaRepository<ExpiredCourseData
     @Query("UPDATE ExpiredCourseData e SET e.updatedAt = CURRENT_TIMESTAMP WHERE e.couponUrl IN :couponUrls")
     void updateUpdatedAtForUrls(@Param("couponUrls") Set<String> couponUrls);
 
+    /**
+     * Deletes expired entries for the given URLs in a single statement (used when coupons are reactivated).
+     *
+     * @param couponUrls Set of coupon URLs to remove from the expired table
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ExpiredCourseData e WHERE e.couponUrl IN :couponUrls")
+    void deleteAllByCouponUrls(@Param("couponUrls") Set<String> couponUrls);
+
     /**
      * Efficiently retrieves courseId by couponUrl from expired table without loading full entity.
      * Used to avoid expensive HTTP requests when courseId is already known in expired table.
@@ -61,4 +73,15 @@ public interface ExpiredCouponRepository extends JpaRepository<ExpiredCourseData
      */
     @Query("SELECT e.courseId FROM ExpiredCourseData e WHERE e.couponUrl = :couponUrl")
     Integer findCourseIdByCouponUrl(@Param("couponUrl") String couponUrl);
+
+    /**
+     * Resolves courseId and title for many coupon URLs in one query.
+     * Replaces per-URL {@link #findCourseIdByCouponUrl} / {@link #findByCouponUrl} lookups in the crawler.
+     *
+     * @param couponUrls The coupon URLs to resolve
+     * @return One projection per URL present in the expired coupon table
+     */
+    @Query("SELECT e.couponUrl AS couponUrl, e.courseId AS courseId, e.title AS title " +
+           "FROM ExpiredCourseData e WHERE e.couponUrl IN :couponUrls")
+    List<CouponUrlProjection> findProjectionsByCouponUrlIn(@Param("couponUrls") Collection<String> couponUrls);
 }
@@ -0,0 +1,20 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.ExpiredCourseData;
+
+import java.util.Collection;
+
+/**
+ * Set-based write operations for expired coupons that JPA cannot express efficiently.
+ */
+public interface ExpiredCouponRepositoryCustom {
+
+    /**
+     * Inserts new expired coupons and touches existing ones in a single JDBC batch
+     * ({@code INSERT ... ON DUPLICATE KEY UPDATE}). Existing rows keep their courseId and title;
+     * only missing values are filled in, and updated_at is refreshed to record the re-check.
+     *
+     * @param expiredCoupons expired coupons to record (couponUrl is required)
+     */
+    void upsertAll(Collection<ExpiredCourseData> expiredCoupons);
+}
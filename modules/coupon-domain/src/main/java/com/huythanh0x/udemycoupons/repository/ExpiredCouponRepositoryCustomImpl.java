@@ -0,0 +1,44 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.ExpiredCourseData;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * JDBC implementation of {@link ExpiredCouponRepositoryCustom}.
+ * With {@code rewriteBatchedStatements=true} on the MySQL URL the batch is sent as one multi-row statement.
+ */
+public class ExpiredCouponRepositoryCustomImpl implements ExpiredCouponRepositoryCustom {
+    private static final String UPSERT_SQL =
+            "INSERT INTO expired_course_data (coupon_url, course_id, title, created_at, updated_at) " +
+            "VALUES (?, ?, ?, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "course_id = COALESCE(course_id, VALUES(course_id)), " +
+            "title = COALESCE(title, VALUES(title)), " +
+            "updated_at = NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpiredCouponRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertAll(Collection<ExpiredCourseData> expiredCoupons) {
+        if (expiredCoupons == null || expiredCoupons.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(expiredCoupons), expiredCoupons.size(), (ps, expired) -> {
+            ps.setString(1, expired.getCouponUrl());
+            if (expired.getCourseId() != null) {
+                ps.setInt(2, expired.getCourseId());
+            } else {
+                ps.setNull(2, Types.INTEGER);
+            }
+            ps.setString(3, expired.getTitle());
+        });
+    }
+}
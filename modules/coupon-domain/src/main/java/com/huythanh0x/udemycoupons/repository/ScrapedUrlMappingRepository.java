@@ -14,7 +14,7 @@ import java.util.Set;
  * Provides methods to query scraped URL to coupon URL mappings.
  */
 @Repository
-public interface ScrapedUrlMappingRepository extends JpaRepository<ScrapedUrlMapping, String> {
+public interface ScrapedUrlMappingRepository extends JpaRepository<ScrapedUrlMapping, String>, ScrapedUrlMappingRepositoryCustom {
     
     /**
      * Finds a mapping by scraped URL.
@@ -0,0 +1,29 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.ScrapedUrlMapping;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+/**
+ * Bulk access to scraped URL mappings, used by crawlers that preload every mapping of their source at the
+ * start of a round instead of looking up each scraped URL on its own.
+ */
+public interface ScrapedUrlMappingRepositoryCustom {
+
+    /**
+     * Streams the scraped URL and coupon URL of every mapping of a source without materializing entities.
+     *
+     * @param crawlerSource the crawler source (e.g., "enext")
+     * @param consumer      receives (scrapedUrl, couponUrl) for each row
+     */
+    void forEachMappingOfSource(String crawlerSource, BiConsumer<String, String> consumer);
+
+    /**
+     * Inserts or updates all mappings in a single JDBC batch. Existing rows get the new coupon URL
+     * and a fresh {@code updated_at}.
+     *
+     * @param mappings mappings discovered during a round
+     */
+    void upsertAll(Collection<ScrapedUrlMapping> mappings);
+}
@@ -0,0 +1,48 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.model.coupon.ScrapedUrlMapping;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC implementation of {@link ScrapedUrlMappingRepositoryCustom}.
+ * With {@code rewriteBatchedStatements=true} on the MySQL URL the upsert is sent as one multi-row statement.
+ */
+public class ScrapedUrlMappingRepositoryCustomImpl implements ScrapedUrlMappingRepositoryCustom {
+    private static final String SELECT_BY_SOURCE_SQL =
+            "SELECT scraped_url, coupon_url FROM scraped_url_mapping WHERE crawler_source = ?";
+    private static final String UPSERT_SQL =
+            "INSERT INTO scraped_url_mapping (scraped_url, coupon_url, crawler_source, created_at, updated_at) " +
+            "VALUES (?, ?, ?, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE coupon_url = VALUES(coupon_url), crawler_source = VALUES(crawler_source), " +
+            "updated_at = NOW()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScrapedUrlMappingRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void forEachMappingOfSource(String crawlerSource, BiConsumer<String, String> consumer) {
+        jdbcTemplate.query(SELECT_BY_SOURCE_SQL,
+                (RowCallbackHandler) rs -> consumer.accept(rs.getString(1), rs.getString(2)),
+                crawlerSource);
+    }
+
+    @Override
+    public void upsertAll(Collection<ScrapedUrlMapping> mappings) {
+        if (mappings == null || mappings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(mappings), mappings.size(), (ps, mapping) -> {
+            ps.setString(1, mapping.getScrapedUrl());
+            ps.setString(2, mapping.getCouponUrl());
+            ps.setString(3, mapping.getCrawlerSource());
+        });
+    }
+}
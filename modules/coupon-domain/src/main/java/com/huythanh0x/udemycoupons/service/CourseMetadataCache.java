@@ -0,0 +1,121 @@
+package com.huythanh0x.udemycoupons.service;
+
+import com.huythanh0x.udemycoupons.model.coupon.CourseJsonData;
+import com.huythanh0x.udemycoupons.utils.Constant;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis-backed store for course metadata (title, author, category, description, rating...) keyed by courseId.
+ * <p>
+ * Course metadata changes far more slowly than pricing, so it is kept for its own TTL
+ * ({@code custom.course-metadata-ttl-hours}) and refresh rounds only need to call the coupon/pricing API.
+ * Once an entry expires, the next validation of that course fetches the course API again and re-caches it.
+ * Hit and miss counts are exported through Micrometer once bound to a registry.
+ */
+public class CourseMetadataCache implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(CourseMetadataCache.class);
+
+    private static CourseMetadataCache instance;
+
+    /**
+     * Set the singleton instance (used for static access from UdemyCouponCourseExtractor).
+     * Should be called during Spring bean initialization.
+     *
+     * @param cache the CourseMetadataCache instance
+     */
+    public static void setInstance(CourseMetadataCache cache) {
+        instance = cache;
+    }
+
+    /**
+     * Get the singleton instance.
+     *
+     * @return the CourseMetadataCache instance
+     * @throws IllegalStateException if instance is not set
+     */
+    public static CourseMetadataCache getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("CourseMetadataCache instance has not been initialized. Make sure Spring context is loaded.");
+        }
+        return instance;
+    }
+
+    private final RedisService redisService;
+    private final Duration ttl;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CourseMetadataCache(RedisService redisService, Duration ttl) {
+        this.redisService = redisService;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Looks up cached metadata for a course.
+     *
+     * @param courseId the Udemy course id
+     * @return the cached metadata, or null if absent, expired or Redis is unreachable
+     */
+    public CourseJsonData get(int courseId) {
+        if (courseId <= 0) {
+            return null;
+        }
+        try {
+            CourseJsonData data = redisService.get(key(courseId), CourseJsonData.class);
+            if (data != null) {
+                hits.incrementAndGet();
+                return data;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to read course metadata for {} from Redis: {}", courseId, e.getMessage());
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores metadata for a course with the configured TTL.
+     *
+     * @param courseId the Udemy course id
+     * @param data     metadata extracted from the course API
+     */
+    public void put(int courseId, CourseJsonData data) {
+        if (courseId <= 0 || data == null) {
+            return;
+        }
+        try {
+            redisService.set(key(courseId), data, ttl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache course metadata for {} in Redis: {}", courseId, e.getMessage());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("course.metadata.cache.hits", hits, AtomicLong::get)
+                .description("Course API calls avoided thanks to cached course metadata")
+                .register(registry);
+        FunctionCounter.builder("course.metadata.cache.misses", misses, AtomicLong::get)
+                .description("Validations that had to fetch course metadata from the course API")
+                .register(registry);
+    }
+
+    private static String key(int courseId) {
+        return Constant.REDIS_KEY_COURSE_METADATA_PREFIX + courseId;
+    }
+}
@@ -0,0 +1,163 @@
+package com.huythanh0x.udemycoupons.service;
+
+import com.huythanh0x.udemycoupons.model.coupon.CourseSlug;
+import com.huythanh0x.udemycoupons.repository.CourseSlugRepository;
+import com.huythanh0x.udemycoupons.utils.UrlUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable index from course slug ({@code /course/<slug>/} in a coupon URL) to courseId, stored in
+ * {@code course_slug_index}.
+ * <p>
+ * Resolving the courseId of an unknown coupon URL costs a coupon page download. The slug is the same for every
+ * coupon code of a course, so once a course was resolved any later coupon for it is resolved from this index
+ * instead. The table is backfilled from active, expired and history rows (V8) and fed by the crawler after each
+ * batch. Hit and miss counts are exported through Micrometer once bound to a registry.
+ */
+public class CourseSlugIndex implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(CourseSlugIndex.class);
+
+    private static CourseSlugIndex instance;
+
+    /**
+     * Set the singleton instance (used for static access from UdemyCouponCourseExtractor).
+     * Should be called during Spring bean initialization.
+     *
+     * @param index the CourseSlugIndex instance
+     */
+    public static void setInstance(CourseSlugIndex index) {
+        instance = index;
+    }
+
+    /**
+     * Get the singleton instance.
+     *
+     * @return the CourseSlugIndex instance
+     * @throws IllegalStateException if instance is not set
+     */
+    public static CourseSlugIndex getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("CourseSlugIndex instance has not been initialized. Make sure Spring context is loaded.");
+        }
+        return instance;
+    }
+
+    private final CourseSlugRepository courseSlugRepository;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CourseSlugIndex(CourseSlugRepository courseSlugRepository) {
+        this.courseSlugRepository = courseSlugRepository;
+    }
+
+    /**
+     * Looks up the courseId of a coupon URL's course.
+     *
+     * @param couponUrl the coupon URL
+     * @return the courseId, or null if the slug is unknown or the lookup failed
+     */
+    public Integer findCourseId(String couponUrl) {
+        String slug = UrlUtils.extractCourseSlug(couponUrl);
+        if (slug == null) {
+            return null;
+        }
+        try {
+            Integer courseId = courseSlugRepository.findById(slug).map(CourseSlug::getCourseId).orElse(null);
+            (courseId != null ? hits : misses).incrementAndGet();
+            return courseId;
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up course slug {}: {}", slug, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the courseIds of several coupon URLs with one query.
+     *
+     * @param couponUrls coupon URLs
+     * @return courseIds by coupon URL; URLs whose slug is unknown are not included
+     */
+    public Map<String, Integer> findCourseIds(Collection<String> couponUrls) {
+        Map<String, String> slugsByUrl = new HashMap<>();
+        for (String couponUrl : couponUrls) {
+            String slug = UrlUtils.extractCourseSlug(couponUrl);
+            if (slug != null) {
+                slugsByUrl.put(couponUrl, slug);
+            }
+        }
+        Map<String, Integer> courseIdsByUrl = new HashMap<>();
+        if (slugsByUrl.isEmpty()) {
+            return courseIdsByUrl;
+        }
+        Map<String, Integer> courseIdsBySlug = new HashMap<>();
+        try {
+            for (CourseSlug entry : courseSlugRepository.findBySlugIn(new HashSet<>(slugsByUrl.values()))) {
+                courseIdsBySlug.put(entry.getSlug(), entry.getCourseId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to look up {} course slugs: {}", slugsByUrl.size(), e.getMessage());
+            return courseIdsByUrl;
+        }
+        slugsByUrl.forEach((couponUrl, slug) -> {
+            Integer courseId = courseIdsBySlug.get(slug);
+            if (courseId != null) {
+                courseIdsByUrl.put(couponUrl, courseId);
+            }
+        });
+        hits.addAndGet(courseIdsByUrl.size());
+        misses.addAndGet(slugsByUrl.size() - courseIdsByUrl.size());
+        return courseIdsByUrl;
+    }
+
+    /**
+     * Stores the courseIds resolved for coupon URLs. URLs without a slug and non-positive courseIds are ignored.
+     *
+     * @param courseIdsByUrl courseIds by coupon URL
+     */
+    public void recordAll(Map<String, Integer> courseIdsByUrl) {
+        Map<String, Integer> courseIdsBySlug = new HashMap<>();
+        courseIdsByUrl.forEach((couponUrl, courseId) -> {
+            String slug = UrlUtils.extractCourseSlug(couponUrl);
+            if (slug != null && courseId != null && courseId > 0) {
+                courseIdsBySlug.put(slug, courseId);
+            }
+        });
+        if (courseIdsBySlug.isEmpty()) {
+            return;
+        }
+        try {
+            courseSlugRepository.upsertAll(courseIdsBySlug);
+        } catch (RuntimeException e) {
+            log.warn("Failed to store {} course slugs: {}", courseIdsBySlug.size(), e.getMessage());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("course.slug.index.hits", hits, AtomicLong::get)
+                .description("CourseId resolutions answered by the course slug index instead of a page fetch")
+                .register(registry);
+        FunctionCounter.builder("course.slug.index.misses", misses, AtomicLong::get)
+                .description("Coupon URLs whose course slug was not in the index")
+                .register(registry);
+    }
+}
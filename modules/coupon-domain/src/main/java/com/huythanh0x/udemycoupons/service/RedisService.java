@@ -143,6 +143,16 @@ public class RedisService {
         }
     }
     
+    /**
+     * Atomically increments a counter, creating it at 1 if absent.
+     *
+     * @param key the Redis key
+     * @return the value after the increment
+     */
+    public Long increment(String key) {
+        return valueOperations.increment(key);
+    }
+    
     /**
      * Deletes a key from Redis.
      *
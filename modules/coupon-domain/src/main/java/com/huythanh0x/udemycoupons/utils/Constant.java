@@ -5,6 +5,11 @@ public class Constant {
     
     // Redis Keys
     public static final String REDIS_KEY_LAST_FETCH_TIME = "last_fetch_time";
+    public static final String REDIS_KEY_COURSE_METADATA_PREFIX = "course_metadata:";
+    public static final String REDIS_KEY_FULL_SWEEP_PREFIX = "crawler_full_sweep:";
+    public static final String REDIS_KEY_CRAWLER_CURSOR_PREFIX = "crawler_cursor:";
+    public static final String REDIS_KEY_COUPON_LIST_VERSION = "coupon_list_version";
+    public static final String REDIS_KEY_COUPON_LIST_PREFIX = "coupon_list:";
     
     // Pagination Constants
     /**
@@ -12,4 +17,11 @@ public class Constant {
      * Requests exceeding this limit will be capped at this value.
      */
     public static final int MAX_PAGE_SIZE = 20;
+
+    // Search Constants
+    /**
+     * Shortest word the FULLTEXT index holds (InnoDB's default {@code innodb_ft_min_token_size}).
+     * Queries without such a word fall back to the substring search.
+     */
+    public static final int FULLTEXT_MIN_TOKEN_SIZE = 3;
 }
@@ -0,0 +1,104 @@
+package com.huythanh0x.udemycoupons.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates executors according to the configured execution mode ({@code custom.executor-mode}).
+ * <ul>
+ *   <li>{@code platform}: fixed pools of platform threads, sized by the caller.</li>
+ *   <li>{@code virtual}: one virtual thread per task; the size hint is ignored and concurrency is
+ *   bounded by the per-host limiter in the fetch engine instead.</li>
+ * </ul>
+ * Virtual threads need a Java 21+ runtime. The project still compiles for Java 17, so they are
+ * created reflectively, and selecting {@code virtual} on an older runtime fails at startup rather than
+ * silently running on platform threads.
+ */
+public class ExecutorFactory {
+    private static final Logger log = LoggerFactory.getLogger(ExecutorFactory.class);
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final boolean virtual;
+
+    /**
+     * @param executorMode {@code platform} or {@code virtual}; null or unknown values select platform
+     * @throws IllegalStateException if virtual mode is selected on a runtime without virtual threads
+     */
+    public ExecutorFactory(String executorMode) {
+        String mode = executorMode == null ? MODE_PLATFORM : executorMode.trim().toLowerCase(Locale.ROOT);
+        if (MODE_VIRTUAL.equals(mode) && !isVirtualThreadSupported()) {
+            throw new IllegalStateException("custom.executor-mode=virtual requires a Java 21+ runtime, running on "
+                    + Runtime.version());
+        } else if (!MODE_VIRTUAL.equals(mode) && !MODE_PLATFORM.equals(mode)) {
+            log.warn("Unknown executor mode '{}', defaulting to {}", executorMode, MODE_PLATFORM);
+            mode = MODE_PLATFORM;
+        }
+        this.virtual = MODE_VIRTUAL.equals(mode);
+        log.info("Executor mode: {}", mode);
+    }
+
+    /**
+     * @return true if executors created by this factory run tasks on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Creates a new executor for the given purpose.
+     *
+     * @param name            thread name prefix, used in logs and thread dumps
+     * @param platformThreads pool size when running on platform threads
+     * @return a new executor; the caller owns it and must shut it down
+     */
+    public ExecutorService newExecutor(String name, int platformThreads) {
+        if (virtual) {
+            return newVirtualThreadPerTaskExecutor(name);
+        }
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), namedThreadFactory(name));
+    }
+
+    /**
+     * @return true if the running JVM supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        try {
+            // Resolve methods on the public Thread.Builder interface; the builder implementation is internal.
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create virtual thread executor", e);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory delegate = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = delegate.newThread(runnable);
+            thread.setName(name + "-" + counter.getAndIncrement());
+            return thread;
+        };
+    }
+}
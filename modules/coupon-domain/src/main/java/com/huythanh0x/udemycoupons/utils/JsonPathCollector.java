@@ -0,0 +1,158 @@
+package com.huythanh0x.udemycoupons.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pull-based extractor for a fixed set of scalar JSON paths, e.g. {@code price_text.data.pricing_result.price.amount}
+ * or {@code visible_instructors[0].title}.
+ * <p>
+ * The body is read token by token with Jackson's {@link JsonParser}: subtrees that cannot contain a requested path
+ * are skipped without materializing anything, only the requested scalar values become Strings, and reading stops as
+ * soon as every required path is settled: found, or known to be absent because an object or array enclosing it has
+ * ended (e.g. a null {@code campaign.end_time} is settled once {@code campaign} closes). Optional paths
+ * ({@link #withOptional}) are collected when they come before that point but never keep the parser reading, e.g.
+ * an error marker that only appears in error payloads. Compared to building an org.json DOM of the whole response
+ * this keeps allocation and bytes read proportional to the requested fields instead of the payload.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class JsonPathCollector {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Set<String> paths;
+    private final Set<String> requiredPaths;
+    private final Set<String> containerPaths;
+
+    private JsonPathCollector(Set<String> requiredPaths, Set<String> optionalPaths) {
+        Set<String> all = new LinkedHashSet<>(requiredPaths);
+        all.addAll(optionalPaths);
+        this.paths = Collections.unmodifiableSet(all);
+        this.requiredPaths = Collections.unmodifiableSet(requiredPaths);
+        Set<String> containers = new HashSet<>();
+        containers.add("");
+        for (String path : all) {
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (c == '.' || c == '[') {
+                    containers.add(path.substring(0, i));
+                }
+            }
+        }
+        this.containerPaths = containers;
+    }
+
+    /**
+     * @param paths dot-separated field paths, all required; array elements are addressed as {@code name[index]}
+     * @return a collector for the given paths
+     */
+    public static JsonPathCollector of(String... paths) {
+        return new JsonPathCollector(new LinkedHashSet<>(Arrays.asList(paths)), Set.of());
+    }
+
+    /**
+     * @param optionalPaths paths collected only if seen before every required path is settled
+     * @return a collector with the same required paths plus the given optional ones
+     */
+    public JsonPathCollector withOptional(String... optionalPaths) {
+        Set<String> optional = new LinkedHashSet<>(paths);
+        optional.removeAll(requiredPaths);
+        optional.addAll(Arrays.asList(optionalPaths));
+        return new JsonPathCollector(new LinkedHashSet<>(requiredPaths), optional);
+    }
+
+    /**
+     * @return required and optional paths
+     */
+    public Set<String> paths() {
+        return paths;
+    }
+
+    /**
+     * Reads the body until every required path is settled or the document ends. The stream is not closed.
+     * JSON nulls and non-scalar values at a requested path are treated as absent.
+     *
+     * @param body JSON document
+     * @return values by path; paths that were not found are absent
+     * @throws IOException if the body cannot be read or is not valid JSON
+     */
+    public Map<String, String> collect(InputStream body) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        Set<String> pending = new HashSet<>(requiredPaths);
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != null) {
+                readValue(parser, "", values, pending);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the value the parser is positioned on.
+     *
+     * @param pending required paths not settled yet
+     * @return true once every required path is settled and reading can stop
+     */
+    private boolean readValue(JsonParser parser, String path, Map<String, String> values, Set<String> pending)
+            throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            if (!containerPaths.contains(path)) {
+                parser.skipChildren();
+                return false;
+            }
+            int index = 0;
+            while (true) {
+                JsonToken next = parser.nextToken();
+                String childPath;
+                if (token == JsonToken.START_OBJECT) {
+                    if (next != JsonToken.FIELD_NAME) {
+                        return containerEnded(path, pending);
+                    }
+                    childPath = path.isEmpty() ? parser.currentName() : path + "." + parser.currentName();
+                    parser.nextToken();
+                } else {
+                    if (next == JsonToken.END_ARRAY || next == null) {
+                        return containerEnded(path, pending);
+                    }
+                    childPath = path + "[" + index++ + "]";
+                }
+                if (readValue(parser, childPath, values, pending)) {
+                    return true;
+                }
+            }
+        }
+        if (token != JsonToken.VALUE_NULL && token != null && paths.contains(path)) {
+            values.put(path, parser.getText());
+            return pending.remove(path) && pending.isEmpty();
+        }
+        return false;
+    }
+
+    /**
+     * Settles the required paths inside a container that has just ended: whatever was not found in it is absent.
+     *
+     * @return true if no required path is pending anymore
+     */
+    private static boolean containerEnded(String path, Set<String> pending) {
+        if (path.isEmpty()) {
+            pending.clear();
+        } else {
+            pending.removeIf(p -> p.startsWith(path) && p.length() > path.length()
+                    && (p.charAt(path.length()) == '.' || p.charAt(path.length()) == '['));
+        }
+        return pending.isEmpty();
+    }
+}
@@ -18,7 +18,7 @@ public class LastFetchTimeManager {
     private static final String REDIS_KEY = Constant.REDIS_KEY_LAST_FETCH_TIME;
     
     /**
-     * Saves the current time to Redis as epoch milliseconds.
+     * Saves the current time to Redis as epoch milliseconds and bumps the coupon list version.
      * Falls back gracefully if Redis is not available.
      */
     public static void updateLastBulkRefreshCoupon() {
@@ -32,6 +32,42 @@ public class LastFetchTimeManager {
             // Redis not available
             log.warn("Redis not available, cannot save fetch time: {}", e.getMessage());
         }
+        // After the fetch time, so pages cached under the new version carry it
+        bumpCouponListVersion();
+    }
+
+    /**
+     * Bumps the coupon list version so cached list pages of the previous version are no longer served.
+     * Called after every write to the coupon table; {@link #updateLastBulkRefreshCoupon()} includes it.
+     */
+    public static void bumpCouponListVersion() {
+        try {
+            Long version = RedisService.getInstance().increment(Constant.REDIS_KEY_COUPON_LIST_VERSION);
+            log.debug("Coupon list version bumped to {}", version);
+        } catch (IllegalStateException e) {
+            // Redis not available; the list cache is bypassed without Redis anyway
+            log.warn("Redis not available, cannot bump coupon list version: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("Error bumping coupon list version in Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the coupon list version.
+     *
+     * @return the current version (0 before the first bump), or null if Redis is not available
+     */
+    public static Long loadCouponListVersion() {
+        try {
+            Long version = RedisService.getInstance().getLong(Constant.REDIS_KEY_COUPON_LIST_VERSION);
+            return version != null ? version : 0L;
+        } catch (IllegalStateException e) {
+            // Redis not available
+            return null;
+        } catch (Exception e) {
+            log.error("Error reading coupon list version from Redis: {}", e.getMessage());
+            return null;
+        }
     }
 
     /**
@@ -2,6 +2,7 @@ package com.huythanh0x.udemycoupons.utils;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Locale;
 
 /**
  * Utility class for handling URLs related to Udemy APIs.
@@ -110,6 +111,31 @@ public class UrlUtils {
         return url;
     }
 
+    /**
+     * Extracts the course slug from a coupon URL, e.g. {@code python-basics} from
+     * {@code https://www.udemy.com/course/python-basics/?couponCode=FREE}. The slug identifies the course
+     * regardless of the coupon code and is returned in lower case.
+     *
+     * @param couponUrl the coupon URL
+     * @return the slug, or null if the URL has no {@code /course/<slug>} segment
+     */
+    public static String extractCourseSlug(String couponUrl) {
+        if (couponUrl == null) {
+            return null;
+        }
+        String marker = "/course/";
+        int start = couponUrl.indexOf(marker);
+        if (start < 0) {
+            return null;
+        }
+        start += marker.length();
+        int end = start;
+        while (end < couponUrl.length() && "/?#".indexOf(couponUrl.charAt(end)) < 0) {
+            end++;
+        }
+        return end > start ? couponUrl.substring(start, end).toLowerCase(Locale.ROOT) : null;
+    }
+
     /**
      * Decodes a Base64 encoded string into a UTF-8 encoded string.
      *
@@ -0,0 +1,67 @@
+package com.huythanh0x.udemycoupons.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Estimates how fast a coupon's {@code usesRemaining} is consumed and when it will run out.
+ * <p>
+ * The rate is an exponentially weighted moving average of the drop observed between two checks. Checks are not
+ * evenly spaced, so an observation is weighted by the time it covers: after {@link #HALF_LIFE} the previous estimate
+ * counts for half. A few minutes between two checks thus barely moves a rate built over hours, while a coupon that
+ * was not checked for a day is re-estimated mostly from the latest observation.
+ */
+public final class UsesDepletionEstimator {
+    static final Duration HALF_LIFE = Duration.ofHours(6);
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+    // Forecasts further away than this are irrelevant for scheduling and would overflow Instant arithmetic
+    private static final Duration MAX_FORECAST = Duration.ofDays(3650);
+
+    private UsesDepletionEstimator() {
+    }
+
+    /**
+     * Folds one observation into the rate.
+     *
+     * @param previousRate      uses per hour estimated so far, null if unknown
+     * @param previousUses      uses remaining at the previous check
+     * @param previousCheckedAt time of the previous check
+     * @param uses              uses remaining now
+     * @param checkedAt         time of this check
+     * @return the new uses-per-hour estimate; the previous one when the observation says nothing about consumption
+     * (no time elapsed, or uses went up because the campaign was extended)
+     */
+    public static Double updateRate(Double previousRate, int previousUses, Instant previousCheckedAt,
+                                    int uses, Instant checkedAt) {
+        if (previousCheckedAt == null || checkedAt == null || uses > previousUses) {
+            return previousRate;
+        }
+        double hours = Duration.between(previousCheckedAt, checkedAt).toMillis() / MILLIS_PER_HOUR;
+        if (hours <= 0) {
+            return previousRate;
+        }
+        double observed = (previousUses - uses) / hours;
+        if (previousRate == null) {
+            return observed;
+        }
+        double weight = 1 - Math.pow(0.5, hours * MILLIS_PER_HOUR / HALF_LIFE.toMillis());
+        return previousRate + weight * (observed - previousRate);
+    }
+
+    /**
+     * @param uses      uses remaining at {@code checkedAt}
+     * @param rate      uses per hour, null if unknown
+     * @param checkedAt time of the check
+     * @return when uses remaining is forecast to reach zero, or null when the rate is unknown or zero
+     */
+    public static Instant forecastDepletion(int uses, Double rate, Instant checkedAt) {
+        if (checkedAt == null || rate == null || rate <= 0) {
+            return null;
+        }
+        if (uses <= 0) {
+            return checkedAt;
+        }
+        double millis = Math.min(uses / rate * MILLIS_PER_HOUR, MAX_FORECAST.toMillis());
+        return checkedAt.plusMillis((long) millis);
+    }
+}
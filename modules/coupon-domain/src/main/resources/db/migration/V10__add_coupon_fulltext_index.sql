@@ -0,0 +1,5 @@
+-- Migration: Add a FULLTEXT index for coupon search
+-- Replaces three LIKE '%q%' scans (one over description TEXT) with an inverted index lookup,
+-- queried with MATCH(title, heading, description) AGAINST (... IN NATURAL LANGUAGE MODE).
+
+CREATE FULLTEXT INDEX ft_coupon_course_search ON coupon_course_data (title, heading, description);
@@ -0,0 +1,10 @@
+-- Migration: Add composite indexes for combined coupon search
+-- Level, category and language are matched as prefixes (LIKE 'x%'), so the leading column can be range-scanned
+-- and the remaining filters (rating, content_length) are checked from the index via index condition pushdown.
+-- Column prefixes keep the keys small; the values are short labels such as "Development" or "Beginner Level".
+
+CREATE INDEX idx_coupon_search_category
+    ON coupon_course_data (category(64), language(32), level(32), rating, content_length);
+
+CREATE INDEX idx_coupon_search_language
+    ON coupon_course_data (language(32), level(32), rating, content_length);
@@ -0,0 +1,8 @@
+-- Migration: Add indexes for keyset (cursor) pagination of the coupon listing
+-- Cursor pages seek with (sort_column, course_id) < (?, ?) ORDER BY sort_column, course_id in one direction.
+-- InnoDB appends the primary key (course_id) to every secondary index, so a single-column index serves both the
+-- seek and the order without a filesort.
+
+CREATE INDEX idx_coupon_created_at ON coupon_course_data (created_at);
+CREATE INDEX idx_coupon_students ON coupon_course_data (students);
+CREATE INDEX idx_coupon_rating ON coupon_course_data (rating);
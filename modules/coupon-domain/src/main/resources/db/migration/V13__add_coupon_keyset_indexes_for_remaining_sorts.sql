@@ -0,0 +1,6 @@
+-- Migration: Add keyset (cursor) pagination indexes for the remaining sort keys
+-- contentLength and usesRemaining are accepted cursor sort keys as well; without an index their seeks filesort
+-- the whole table on every page. As in V12, InnoDB appends course_id to each index, which orders the tiebreaker.
+
+CREATE INDEX idx_coupon_content_length ON coupon_course_data (content_length);
+CREATE INDEX idx_coupon_uses_remaining ON coupon_course_data (uses_remaining);
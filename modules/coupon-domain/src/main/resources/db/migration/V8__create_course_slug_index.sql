@@ -0,0 +1,29 @@
+-- Migration: Create course_slug_index table
+-- Maps the course slug of a coupon URL (https://www.udemy.com/course/<slug>/?couponCode=...) to its courseId,
+-- so a new coupon code for a known course does not need the coupon page to be fetched to resolve the courseId.
+CREATE TABLE IF NOT EXISTS course_slug_index (
+    slug VARCHAR(255) PRIMARY KEY,
+    course_id INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Backfill from every table that already pairs a coupon URL with its courseId.
+-- Active coupons go first; INSERT IGNORE keeps the first courseId seen for a slug.
+INSERT IGNORE INTO course_slug_index (slug, course_id)
+SELECT LOWER(SUBSTRING_INDEX(SUBSTRING_INDEX(SUBSTRING_INDEX(coupon_url, '/course/', -1), '/', 1), '?', 1)), course_id
+FROM coupon_course_data
+WHERE coupon_url LIKE '%/course/%' AND course_id > 0;
+
+INSERT IGNORE INTO course_slug_index (slug, course_id)
+SELECT LOWER(SUBSTRING_INDEX(SUBSTRING_INDEX(SUBSTRING_INDEX(coupon_url, '/course/', -1), '/', 1), '?', 1)), course_id
+FROM expired_course_data
+WHERE coupon_url LIKE '%/course/%' AND course_id > 0;
+
+INSERT IGNORE INTO course_slug_index (slug, course_id)
+SELECT LOWER(SUBSTRING_INDEX(SUBSTRING_INDEX(SUBSTRING_INDEX(coupon_url, '/course/', -1), '/', 1), '?', 1)), course_id
+FROM coupon_course_history
+WHERE coupon_url LIKE '%/course/%' AND course_id > 0;
+
+-- Empty slugs cannot be produced by the crawler's lookup, drop any the backfill created
+DELETE FROM course_slug_index WHERE slug = '';
@@ -0,0 +1,10 @@
+-- Migration: Add uses_remaining depletion forecast to coupon_course_data
+-- uses_per_hour is a time-weighted moving average of how fast uses_remaining drops between checks
+-- (NULL until a coupon has been checked twice), depletes_at the time uses_remaining is forecast to reach zero
+-- (NULL when nothing is being consumed).
+
+ALTER TABLE coupon_course_data
+    ADD COLUMN uses_per_hour DOUBLE NULL,
+    ADD COLUMN depletes_at DATETIME NULL;
+
+CREATE INDEX idx_depletes_at ON coupon_course_data(depletes_at);
@@ -0,0 +1,118 @@
+package com.huythanh0x.udemycoupons.crawler_runner.base;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrawlerStageTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CrawlerStage.Metrics metrics = new CrawlerStage.Metrics(new SimpleMeterRegistry(), "test");
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void completeLetsWorkersDrainQueuedItemsBeforeExiting() throws Exception {
+        AtomicInteger handled = new AtomicInteger();
+        CrawlerStage<Integer> stage = new CrawlerStage<>(2, 8, item -> {
+            handled.incrementAndGet();
+            return true;
+        }, metrics);
+        stage.start(executor);
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(stage.submit(i));
+        }
+        stage.complete();
+        assertFalse(stage.submit(6));
+
+        assertTimeoutPreemptively(TIMEOUT, stage::awaitCompletion);
+        assertEquals(6, handled.get());
+        assertFalse(stage.isStopped());
+    }
+
+    @Test
+    void quotaReachedAfterCompleteStillEndsTheStage() throws Exception {
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicInteger handled = new AtomicInteger();
+        CrawlerStage<Integer> stage = new CrawlerStage<>(2, 8, item -> {
+            // Keeps the items queued until the pills are behind them
+            completed.await();
+            return handled.incrementAndGet() < 3;
+        }, metrics);
+        stage.start(executor);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(stage.submit(i));
+        }
+        stage.complete();
+        completed.countDown();
+
+        assertTimeoutPreemptively(TIMEOUT, stage::awaitCompletion);
+        assertTrue(stage.isStopped());
+        assertTrue(handled.get() < 8, "queued items are dropped once the quota is reached");
+    }
+
+    @Test
+    void stopBeforeCompleteRefusesProducersAndEndsTheStage() throws Exception {
+        AtomicInteger handled = new AtomicInteger();
+        CrawlerStage<Integer> stage = new CrawlerStage<>(3, 4, item -> {
+            handled.incrementAndGet();
+            return false;
+        }, metrics);
+        stage.start(executor);
+
+        stage.submit(0);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            while (!stage.isStopped()) {
+                Thread.sleep(1);
+            }
+        });
+        assertFalse(stage.submit(1));
+
+        assertTimeoutPreemptively(TIMEOUT, stage::awaitCompletion);
+        stage.complete();
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void stopReleasesProducersBlockedOnAFullQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CrawlerStage<Integer> stage = new CrawlerStage<>(1, 1, item -> {
+            release.await();
+            return true;
+        }, metrics);
+        stage.start(executor);
+
+        // The worker holds the first item and the second fills the queue
+        assertTrue(stage.submit(0));
+        assertTrue(stage.submit(1));
+        Future<Boolean> blocked = executor.submit(() -> stage.submit(2));
+        Thread.sleep(50);
+        assertFalse(blocked.isDone());
+
+        stage.stop();
+        assertFalse(blocked.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        release.countDown();
+        stage.complete();
+        assertTimeoutPreemptively(TIMEOUT, stage::awaitCompletion);
+    }
+}
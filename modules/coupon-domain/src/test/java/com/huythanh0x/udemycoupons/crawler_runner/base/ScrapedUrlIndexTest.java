@@ -0,0 +1,70 @@
+package com.huythanh0x.udemycoupons.crawler_runner.base;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScrapedUrlIndexTest {
+
+    @Test
+    void getReturnsWhatWasPut() {
+        ScrapedUrlIndex index = new ScrapedUrlIndex(4);
+        index.put("https://enext.example/course-a", "https://www.udemy.com/course/a/?couponCode=A");
+        index.put("https://enext.example/course-b", "https://www.udemy.com/course/b/?couponCode=B");
+
+        assertEquals("https://www.udemy.com/course/a/?couponCode=A", index.get("https://enext.example/course-a"));
+        assertEquals("https://www.udemy.com/course/b/?couponCode=B", index.get("https://enext.example/course-b"));
+        assertNull(index.get("https://enext.example/course-c"));
+        assertNull(index.get(null));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void putOverwritesAnExistingMappingWithoutGrowing() {
+        ScrapedUrlIndex index = new ScrapedUrlIndex(4);
+        index.put("https://enext.example/course-a", "https://www.udemy.com/course/a/?couponCode=OLD");
+        long bytesBefore = index.estimatedBytes();
+
+        index.put("https://enext.example/course-a", "https://www.udemy.com/course/a/?couponCode=NEWER");
+
+        assertEquals("https://www.udemy.com/course/a/?couponCode=NEWER", index.get("https://enext.example/course-a"));
+        assertEquals(1, index.size());
+        assertTrue(index.estimatedBytes() >= bytesBefore);
+    }
+
+    @Test
+    void rehashKeepsEveryMappingWhenFilledPastTheExpectedSize() {
+        ScrapedUrlIndex index = new ScrapedUrlIndex(2);
+        long bytesBefore = index.estimatedBytes();
+
+        for (int i = 0; i < 1000; i++) {
+            index.put("https://enext.example/course-" + i, "https://www.udemy.com/course/" + i + "/");
+        }
+
+        assertEquals(1000, index.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("https://www.udemy.com/course/" + i + "/", index.get("https://enext.example/course-" + i));
+        }
+        assertNull(index.get("https://enext.example/course-1000"));
+        assertTrue(index.estimatedBytes() > bytesBefore);
+    }
+
+    @Test
+    void nullsAreIgnored() {
+        ScrapedUrlIndex index = new ScrapedUrlIndex(0);
+        index.put(null, "https://www.udemy.com/course/a/");
+        index.put("https://enext.example/course-a", null);
+
+        assertEquals(0, index.size());
+        assertNull(index.get("https://enext.example/course-a"));
+    }
+
+    @Test
+    void hashNeverReturnsTheEmptyMarker() {
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ScrapedUrlIndex.hash64("url-" + i) != 0L);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.huythanh0x.udemycoupons.crawler_runner.fetcher;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveRateLimiterTest {
+
+    private static final AdaptiveRateLimiter.Settings SETTINGS = new AdaptiveRateLimiter.Settings(
+            20, 1, 40, 1, 1, 0.5, Duration.ZERO, Duration.ofSeconds(5));
+
+    private HttpServer server;
+    private final AtomicInteger throttledRequestsLeft = new AtomicInteger();
+    private final AtomicInteger requestsReceived = new AtomicInteger();
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requestsReceived.incrementAndGet();
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            if (throttledRequestsLeft.getAndDecrement() > 0) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                exchange.sendResponseHeaders(429, body.length);
+            } else {
+                exchange.sendResponseHeaders(200, body.length);
+            }
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    private String stubUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/course";
+    }
+
+    @Test
+    void throttledResponseHalvesRateAndHonoursRetryAfter() throws Exception {
+        HttpFetchEngine engine = new HttpFetchEngine(Duration.ofSeconds(2), Duration.ofSeconds(5), 0, null, SETTINGS);
+        throttledRequestsLeft.set(1);
+
+        HttpResponse<String> throttled = engine.send(stubUrl(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(429, throttled.statusCode());
+        AdaptiveRateLimiter limiter = engine.rateLimiterFor(stubUrl());
+        assertEquals(10.0, limiter.getRatePerSecond(), 0.001);
+        assertTrue(limiter.getPausedSeconds() > 0);
+
+        long start = System.nanoTime();
+        HttpResponse<String> ok = engine.send(stubUrl(), HttpResponse.BodyHandlers.ofString());
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(200, ok.statusCode());
+        assertTrue(waitedMs >= 900, "second request should wait for Retry-After, waited " + waitedMs + " ms");
+        assertEquals(11.0, limiter.getRatePerSecond(), 0.001);
+        assertEquals(1, limiter.getThrottledResponses());
+        assertEquals(2, requestsReceived.get());
+    }
+
+    @Test
+    void asyncRequestsAreDelayedByTheSameLimiter() throws Exception {
+        HttpFetchEngine engine = new HttpFetchEngine(Duration.ofSeconds(2), Duration.ofSeconds(5), 0, null, SETTINGS);
+        throttledRequestsLeft.set(1);
+
+        engine.sendAsync(stubUrl(), HttpResponse.BodyHandlers.ofString()).get(5, TimeUnit.SECONDS);
+        long start = System.nanoTime();
+        HttpResponse<String> ok = engine.sendAsync(stubUrl(), HttpResponse.BodyHandlers.ofString()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, ok.statusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 900);
+    }
+
+    @Test
+    void successesIncreaseRateUpToMaximum() {
+        AtomicLong clock = new AtomicLong();
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(SETTINGS, clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSuccess();
+        }
+        assertEquals(40.0, limiter.getRatePerSecond(), 0.001);
+    }
+
+    @Test
+    void reservationsBeyondBurstWaitForRefill() {
+        AtomicLong clock = new AtomicLong();
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(SETTINGS, clock::get);
+
+        assertEquals(0, limiter.reserve());
+        // 20 req/s: the next token is 50 ms away, the one after that 100 ms
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), limiter.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.reserve());
+    }
+
+    @Test
+    void decreasesNeverGoBelowMinimumAndRespectCooldown() {
+        AtomicLong clock = new AtomicLong();
+        AdaptiveRateLimiter.Settings withCooldown = new AdaptiveRateLimiter.Settings(
+                20, 4, 40, 1, 1, 0.5, Duration.ofSeconds(1), Duration.ofSeconds(5));
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(withCooldown, clock::get);
+
+        limiter.onThrottled(null);
+        limiter.onThrottled(null);
+        assertEquals(10.0, limiter.getRatePerSecond(), 0.001);
+
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+            limiter.onThrottled(null);
+        }
+        assertEquals(4.0, limiter.getRatePerSecond(), 0.001);
+    }
+
+    @Test
+    void disabledLimiterNeverWaits() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(AdaptiveRateLimiter.Settings.disabled());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.reserve());
+        }
+        limiter.onThrottled(Duration.ofSeconds(30));
+        assertEquals(0, limiter.reserve());
+        assertEquals(0.0, limiter.getRatePerSecond());
+    }
+
+    @Test
+    void parsesRetryAfterSecondsAndHttpDate() {
+        assertEquals(Duration.ofSeconds(7), HttpFetchEngine.parseRetryAfter("7"));
+        assertNull(HttpFetchEngine.parseRetryAfter("soon"));
+        assertNull(HttpFetchEngine.parseRetryAfter(null));
+        Duration fromDate = HttpFetchEngine.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT");
+        assertNotNull(fromDate);
+        assertEquals(Duration.ZERO, fromDate);
+    }
+}
@@ -0,0 +1,104 @@
+package com.huythanh0x.udemycoupons.crawler_runner.fetcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseIdBodySubscriberTest {
+
+    @Test
+    void findsTheCourseIdWhenTheTokenIsSplitAcrossChunks() throws Exception {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CourseIdBodySubscriber subscriber = subscribe(subscription);
+
+        subscriber.onNext(chunks("<html><meta content=\"udemy://disc"));
+        subscriber.onNext(chunks("over?course"));
+        subscriber.onNext(chunks("Id=664"));
+        assertFalse(subscription.cancelled);
+        subscriber.onNext(chunks("3369\"><body>", "never scanned"));
+
+        assertEquals(6643369, body(subscriber));
+        assertTrue(subscription.cancelled);
+    }
+
+    @Test
+    void partialMatchFallsBackWithoutMissingTheNextOccurrence() throws Exception {
+        CourseIdBodySubscriber subscriber = subscribe(new RecordingSubscription());
+
+        // "udemy://udemy://..." restarts inside a partial match; "courseId=x" has no digits and is skipped
+        subscriber.onNext(chunks("udemy://udemy://discover?courseId=x udemy://discover?courseId=42&"));
+
+        assertEquals(42, body(subscriber));
+    }
+
+    @Test
+    void idAtTheEndOfTheBodyIsReturnedOnCompletion() throws Exception {
+        CourseIdBodySubscriber subscriber = subscribe(new RecordingSubscription());
+
+        subscriber.onNext(chunks("udemy://discover?courseId=", "123"));
+        subscriber.onComplete();
+
+        assertEquals(123, body(subscriber));
+    }
+
+    @Test
+    void bodyWithoutTheTokenCompletesWithMinusOne() throws Exception {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CourseIdBodySubscriber subscriber = subscribe(subscription);
+
+        subscriber.onNext(chunks("<html>udemy://discover?course=1</html>"));
+        subscriber.onComplete();
+
+        assertEquals(-1, body(subscriber));
+        assertEquals(2, subscription.requested);
+    }
+
+    @Test
+    void overlongDigitRunIsNotACourseId() throws Exception {
+        CourseIdBodySubscriber subscriber = subscribe(new RecordingSubscription());
+
+        subscriber.onNext(chunks("udemy://discover?courseId=99999999999\""));
+        subscriber.onComplete();
+
+        assertEquals(-1, body(subscriber));
+    }
+
+    private static CourseIdBodySubscriber subscribe(RecordingSubscription subscription) {
+        CourseIdBodySubscriber subscriber = new CourseIdBodySubscriber();
+        subscriber.onSubscribe(subscription);
+        return subscriber;
+    }
+
+    private static List<ByteBuffer> chunks(String... parts) {
+        return java.util.Arrays.stream(parts)
+                .map(part -> ByteBuffer.wrap(part.getBytes(StandardCharsets.UTF_8)))
+                .toList();
+    }
+
+    private static int body(CourseIdBodySubscriber subscriber) throws Exception {
+        return subscriber.getBody().toCompletableFuture().get(1, TimeUnit.SECONDS);
+    }
+
+    private static final class RecordingSubscription implements Flow.Subscription {
+        long requested;
+        boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.huythanh0x.udemycoupons.repository;
+
+import com.huythanh0x.udemycoupons.dto.CouponCardDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CouponCursorTest {
+
+    private static final CouponCardDTO COUPON = CouponCardDTO.builder()
+            .courseId(6643369)
+            .students(12345)
+            .rating(4.5999999f)
+            .contentLength(180)
+            .usesRemaining(512)
+            .createdAt(LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_000_000))
+            .build();
+
+    @Test
+    void everySortPropertySurvivesEncodeAndDecode() {
+        for (String property : new String[]{"students", "rating", "createdAt", "contentLength", "usesRemaining"}) {
+            CouponCursor cursor = CouponCursor.after(COUPON, property, property.length() % 2 == 0);
+
+            assertEquals(cursor, CouponCursor.decode(cursor.encode()), property);
+        }
+    }
+
+    @Test
+    void decodedValuesKeepTheirTypes() {
+        CouponCursor rating = CouponCursor.decode(CouponCursor.after(COUPON, "rating", false).encode());
+        CouponCursor createdAt = CouponCursor.decode(CouponCursor.after(COUPON, "createdAt", true).encode());
+
+        assertEquals(4.5999999f, rating.sortValue());
+        assertFalse(rating.ascending());
+        assertEquals(6643369, rating.courseId());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123_000_000), createdAt.sortValue());
+        assertTrue(createdAt.ascending());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = CouponCursor.after(COUPON, "createdAt", false).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String[] tampered = {
+                token("students|desc|6643369"),
+                token("title|desc|6643369|Java"),
+                token("students|sideways|6643369|12345"),
+                token("students|desc|not-an-id|12345"),
+                token("students|desc|6643369|12345.5"),
+                token("rating|desc|6643369|high"),
+                token("createdAt|asc|6643369|yesterday"),
+                token(""),
+                "not base64!",
+        };
+        for (String token : tampered) {
+            assertThrows(IllegalArgumentException.class, () -> CouponCursor.decode(token), token);
+        }
+    }
+
+    @Test
+    void unsupportedSortPropertyHasNoCursor() {
+        assertThrows(IllegalArgumentException.class, () -> CouponCursor.after(COUPON, "title", true));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
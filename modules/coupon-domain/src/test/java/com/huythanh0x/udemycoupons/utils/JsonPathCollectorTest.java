@@ -0,0 +1,74 @@
+package com.huythanh0x.udemycoupons.utils;
+
+import com.huythanh0x.udemycoupons.crawler_runner.UdemyCouponCourseExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonPathCollectorTest {
+
+    @Test
+    void couponFieldsStopBeforeTheEndOfAValidResponse() throws IOException {
+        byte[] body = fixture("course-landing-components.json");
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+        Map<String, String> values = UdemyCouponCourseExtractor.COUPON_FIELDS.collect(in);
+
+        assertEquals("0", values.get("price_text.data.pricing_result.price.amount"));
+        assertEquals("512", values.get("price_text.data.pricing_result.campaign.uses_remaining"));
+        assertEquals("/course/1/preview/",
+                values.get("sidebar_container.componentProps.introductionAsset.course_preview_path"));
+        // end_time is null in the fixture and detail absent; neither keeps the parser reading
+        assertFalse(values.containsKey("price_text.data.pricing_result.campaign.end_time"));
+        assertFalse(values.containsKey("detail"));
+        assertTrue(in.available() > body.length / 2,
+                "read " + (body.length - in.available()) + " of " + body.length + " bytes");
+    }
+
+    @Test
+    void optionalPathIsCollectedFromAnErrorPayload() throws IOException {
+        Map<String, String> values = UdemyCouponCourseExtractor.COUPON_FIELDS.collect(stream("{\"detail\":\"Not found\"}"));
+
+        assertEquals(Map.of("detail", "Not found"), values);
+    }
+
+    @Test
+    void requiredPathIsSettledWhenItsObjectEnds() throws IOException {
+        JsonPathCollector collector = JsonPathCollector.of("a.b", "a.c");
+
+        // Truncated after "a": reading past it would fail
+        Map<String, String> values = collector.collect(stream("{\"a\":{\"b\":1,\"c\":null},\"rest\":[1,"));
+
+        assertEquals(Map.of("a.b", "1"), values);
+    }
+
+    @Test
+    void arrayElementsAndScalarsAreCollected() throws IOException {
+        JsonPathCollector collector = JsonPathCollector.of("list[1].name", "count");
+
+        Map<String, String> values = collector.collect(
+                stream("{\"list\":[{\"name\":\"x\"},{\"name\":\"y\",\"skip\":{\"deep\":[1,2]}}],\"count\":3}"));
+
+        assertEquals(Map.of("list[1].name", "y", "count", "3"), values);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = JsonPathCollectorTest.class.getResourceAsStream("/fixtures/" + name)) {
+            assertNotNull(in, "missing fixture " + name);
+            return in.readAllBytes();
+        }
+    }
+}